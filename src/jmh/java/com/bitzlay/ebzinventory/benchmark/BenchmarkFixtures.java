@@ -0,0 +1,113 @@
+package com.bitzlay.ebzinventory.benchmark;
+
+import com.bitzlay.ebzinventory.crafting.InventorySnapshot;
+
+import java.util.Random;
+
+/**
+ * Datos sintéticos para los benchmarks.
+ *
+ * No se arranca Minecraft: los items se representan con ids numéricos, los mismos que usa
+ * {@link InventorySnapshot} por dentro, y las recetas e inventarios son arrays de ids y
+ * cantidades. Todo se genera con una semilla fija, así que cada ejecución mide exactamente
+ * el mismo conjunto.
+ */
+final class BenchmarkFixtures {
+    /** Categorías entre las que se reparten las recetas */
+    static final int CATEGORY_COUNT = 12;
+
+    /** Ids distintos usados como materiales; el inventario sale del mismo grupo */
+    static final int MATERIAL_COUNT = 64;
+
+    /** Ids disponibles para resultados, como los items de un pack mediano */
+    static final int ITEM_COUNT = 1200;
+
+    private static final String[] CATEGORIES = new String[CATEGORY_COUNT];
+
+    static {
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            CATEGORIES[i] = "category_" + i;
+        }
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Categoría de la receta {@code index}; las recetas se reparten entre ellas en rotación.
+     */
+    static String category(int index) {
+        return CATEGORIES[index % CATEGORY_COUNT];
+    }
+
+    /**
+     * Recetas sintéticas como arrays paralelos, con la forma de
+     * {@code InventoryRecipe.getIngredientIds()} y {@code getIngredientAmounts()}.
+     */
+    static final class Recipes {
+        final int[][] ingredientIds;
+        final int[][] ingredientAmounts;
+
+        private Recipes(int count) {
+            ingredientIds = new int[count][];
+            ingredientAmounts = new int[count][];
+        }
+
+        int size() {
+            return ingredientIds.length;
+        }
+    }
+
+    /**
+     * Conjunto de {@code count} recetas de 1 a 4 ingredientes tomados de los materiales
+     * comunes. Aproximadamente una cuarta parte produce un material común, como las cadenas
+     * de subcomponentes de un pack real.
+     */
+    static Recipes recipes(int count, long seed) {
+        Random random = new Random(seed);
+        Recipes recipes = new Recipes(count);
+        for (int i = 0; i < count; i++) {
+            int result = random.nextInt(4) == 0
+                    ? random.nextInt(MATERIAL_COUNT)
+                    : MATERIAL_COUNT + random.nextInt(ITEM_COUNT - MATERIAL_COUNT);
+
+            int ingredientCount = 1 + random.nextInt(4);
+            int[] ids = new int[ingredientCount];
+            int[] amounts = new int[ingredientCount];
+            int filled = 0;
+            while (filled < ingredientCount) {
+                int ingredient = random.nextInt(MATERIAL_COUNT);
+                if (ingredient == result || contains(ids, filled, ingredient)) continue;
+                ids[filled] = ingredient;
+                amounts[filled] = 1 + random.nextInt(8);
+                filled++;
+            }
+
+            recipes.ingredientIds[i] = ids;
+            recipes.ingredientAmounts[i] = amounts;
+        }
+        return recipes;
+    }
+
+    private static boolean contains(int[] ids, int length, int id) {
+        for (int i = 0; i < length; i++) {
+            if (ids[i] == id) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Inventario de jugador sintético: por cada slot de crafteo, el id del material y la
+     * cantidad, como un inventario a media partida. Devuelve {@code {ids, cantidades}}.
+     */
+    static int[][] inventory(long seed) {
+        Random random = new Random(seed);
+        int[] ids = new int[InventorySnapshot.CRAFTING_SLOTS];
+        int[] counts = new int[InventorySnapshot.CRAFTING_SLOTS];
+        for (int slot = 0; slot < InventorySnapshot.CRAFTING_SLOTS; slot++) {
+            ids[slot] = random.nextInt(MATERIAL_COUNT);
+            counts[slot] = 1 + random.nextInt(64);
+        }
+        return new int[][]{ids, counts};
+    }
+}
@@ -0,0 +1,147 @@
+package com.bitzlay.ebzinventory.benchmark;
+
+import com.bitzlay.ebzinventory.crafting.CraftableSet;
+import com.bitzlay.ebzinventory.crafting.InventorySnapshot;
+import com.bitzlay.ebzinventory.recipe.CategoryIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de crafteabilidad con conjuntos de 100 a 50.000 recetas.
+ *
+ * {@code CraftingHelper.canCraft} necesita un jugador, que no existe sin mundo. Lo que hace
+ * por debajo sí se mide: {@link InventorySnapshot#of(int[], int[], int)}, el mismo recuento
+ * al que delega {@code InventorySnapshot.of(Container, int)}, y la comprobación de la receta
+ * por ids. El refresco del panel de crafteo rápido pasa por {@link CraftableSet}, que es lo
+ * que usa {@code CraftabilityTracker}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CraftabilityBenchmark {
+    @Param({"100", "1000", "10000", "50000"})
+    public int recipeCount;
+
+    private BenchmarkFixtures.Recipes recipes;
+    private int[] slotIds;
+    private int[] slotCounts;
+    private InventorySnapshot inventory;
+    private CraftableSet fullSet;
+    private CraftableSet trackedSet;
+    private int changedSlot;
+    private int changedCount;
+    private int recipe;
+    private CategoryIndex<Integer> categories;
+    private int category;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        recipes = BenchmarkFixtures.recipes(recipeCount, 42L);
+        int[][] inventoryData = BenchmarkFixtures.inventory(7L);
+        slotIds = inventoryData[0];
+        slotCounts = inventoryData[1];
+        inventory = InventorySnapshot.of(slotIds, slotCounts, InventorySnapshot.CRAFTING_SLOTS);
+
+        fullSet = new CraftableSet(InventorySnapshot.CRAFTING_SLOTS);
+        fullSet.setRecipes(recipes.ingredientIds, recipes.ingredientAmounts);
+
+        // Conjunto ya evaluado, como el del tracker entre ticks
+        trackedSet = new CraftableSet(InventorySnapshot.CRAFTING_SLOTS);
+        trackedSet.setRecipes(recipes.ingredientIds, recipes.ingredientAmounts);
+        scan(trackedSet);
+        trackedSet.evaluateAll();
+        changedSlot = InventorySnapshot.CRAFTING_SLOTS / 2;
+        changedCount = slotCounts[changedSlot];
+        recipe = recipeCount / 2;
+
+        // El mismo índice que RecipeSnapshot, sobre la posición de cada receta
+        List<Integer> ordinals = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            ordinals.add(i);
+        }
+        categories = CategoryIndex.build(ordinals, BenchmarkFixtures::category);
+    }
+
+    /**
+     * Una comprobación aislada, como {@code CraftingHelper.canCraft}: recorre el inventario y evalúa la receta.
+     */
+    @Benchmark
+    public boolean canCraft() {
+        return InventorySnapshot.of(slotIds, slotCounts, InventorySnapshot.CRAFTING_SLOTS)
+                .canCraft(recipes.ingredientIds[recipe], recipes.ingredientAmounts[recipe]);
+    }
+
+    /**
+     * Solo la evaluación de la receta contra un histograma ya calculado.
+     */
+    @Benchmark
+    public boolean canCraftWithSnapshot() {
+        return inventory.canCraft(recipes.ingredientIds[recipe], recipes.ingredientAmounts[recipe]);
+    }
+
+    /**
+     * Cantidad máxima, como la que muestra el panel de información y pide el botón "Máx".
+     */
+    @Benchmark
+    public int maxCraftable() {
+        return inventory.maxCraftable(recipes.ingredientIds[recipe], recipes.ingredientAmounts[recipe]);
+    }
+
+    /**
+     * Reevaluación completa del conjunto, como al abrir el panel de crafteo rápido o al
+     * cambiar de instantánea de recetas.
+     */
+    @Benchmark
+    public int fullCraftabilityRefresh() {
+        fullSet.reset();
+        scan(fullSet);
+        fullSet.evaluateAll();
+        return fullSet.craftableCount();
+    }
+
+    /**
+     * Refresco incremental de un tick en que cambió un slot, como {@code CraftabilityTracker}:
+     * se recorre el inventario y solo se reevalúan las recetas que usan el item afectado.
+     * El slot alterna entre dos cantidades para que cada invocación tenga un cambio.
+     */
+    @Benchmark
+    public boolean dirtyItemRefresh() {
+        slotCounts[changedSlot] = slotCounts[changedSlot] == changedCount ? changedCount + 1 : changedCount;
+        scan(trackedSet);
+        return trackedSet.evaluateDirty();
+    }
+
+    private void scan(CraftableSet set) {
+        for (int slot = 0; slot < InventorySnapshot.CRAFTING_SLOTS; slot++) {
+            set.updateSlot(slot, slotIds[slot], slotCounts[slot]);
+        }
+    }
+
+    /**
+     * Recetas de una categoría, como {@code InventoryRecipeManager.getRecipesByCategory} al
+     * cambiar de pestaña.
+     */
+    @Benchmark
+    public void recipesByCategory(Blackhole blackhole) {
+        category = (category + 1) % BenchmarkFixtures.CATEGORY_COUNT;
+        blackhole.consume(categories.get(BenchmarkFixtures.category(category)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.bitzlay.ebzinventory.benchmark;
+
+import com.bitzlay.ebzinventory.crafting.InventorySnapshot;
+import com.bitzlay.ebzinventory.crafting.MaterialPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumo de materiales: el plan de retirada sobre un inventario sintético y el ciclo
+ * completo retirar + reembolsar, que deja el inventario como estaba para la siguiente
+ * invocación.
+ *
+ * El inventario son ids y cantidades por slot, el mismo volcado que
+ * {@link MaterialPlan#compute(net.minecraft.world.Container, int,
+ * com.bitzlay.ebzinventory.recipe.InventoryRecipe, int)} hace de un contenedor; el cálculo y
+ * la retirada son los de producción.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaterialConsumptionBenchmark {
+    @Param({"1", "16"})
+    public int crafts;
+
+    private int[] slotIds;
+    private int[] slotCounts;
+    private int[] ingredientIds;
+    private int[] ingredientAmounts;
+    private final MaterialPlan plan = new MaterialPlan();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int[][] inventory = BenchmarkFixtures.inventory(7L);
+        slotIds = inventory[0];
+        slotCounts = inventory[1];
+
+        // Receta con tres materiales repartidos por varios slots del inventario
+        ingredientIds = new int[3];
+        ingredientAmounts = new int[3];
+        for (int ingredient = 0; ingredient < 3; ingredient++) {
+            ingredientIds[ingredient] = ingredient;
+            ingredientAmounts[ingredient] = 2;
+            for (int copy = 0; copy < 4; copy++) {
+                slotIds[ingredient * 8 + copy] = ingredient;
+                slotCounts[ingredient * 8 + copy] = 64;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean computePlan() {
+        return plan.compute(slotIds, slotCounts, InventorySnapshot.CRAFTING_SLOTS,
+                ingredientIds, ingredientAmounts, crafts, null);
+    }
+
+    @Benchmark
+    public int consumeAndRefund() {
+        if (!plan.compute(slotIds, slotCounts, InventorySnapshot.CRAFTING_SLOTS,
+                ingredientIds, ingredientAmounts, crafts, null)) {
+            throw new IllegalStateException("Inventario sintético sin materiales suficientes");
+        }
+        if (!plan.apply(slotIds, slotCounts)) {
+            throw new IllegalStateException("El plan quedó obsoleto antes de aplicarse");
+        }
+
+        // Reembolso: devuelve a cada slot lo retirado, como MaterialReceipt.restore
+        for (int i = 0; i < plan.size(); i++) {
+            slotCounts[plan.getSlot(i)] += plan.getAmount(i);
+        }
+        return plan.size();
+    }
+}
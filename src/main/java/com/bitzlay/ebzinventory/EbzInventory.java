@@ -6,17 +6,23 @@ import com.bitzlay.ebzinventory.client.gui.RustStyleInventoryScreen;
 import com.bitzlay.ebzinventory.player.FoodManager;
 import com.bitzlay.ebzinventory.player.PlayerHydrationManager;
 import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import com.bitzlay.ebzinventory.recipe.RecipeReloader;
 import com.mojang.logging.LogUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.entity.player.Player;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.ScreenEvent;
 import net.minecraftforge.client.gui.overlay.VanillaGuiOverlay;
 import net.minecraftforge.client.event.RenderGuiOverlayEvent;
 import net.minecraft.client.gui.screens.inventory.InventoryScreen;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
+import net.minecraftforge.event.entity.player.ItemTooltipEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
@@ -44,6 +50,7 @@ public class EbzInventory {
         // Registramos la configuración
         LOGGER.info("⚙️ Inicializando configuración");
         com.bitzlay.ebzinventory.config.HydrationConfig.init();
+        com.bitzlay.ebzinventory.config.CraftingConfig.init();
 
         FoodManager.init();
         LOGGER.info("✅ Sistema de alimentación personalizado inicializado");
@@ -56,9 +63,6 @@ public class EbzInventory {
         // Registramos eventos en el bus de Forge
         MinecraftForge.EVENT_BUS.register(this);
 
-        // Cargamos recetas
-        InventoryRecipeManager.loadRecipes("config/inventory_recipes.json");
-
         LOGGER.info("✅ EbzInventory mod inicializado correctamente");
     }
 
@@ -85,7 +89,7 @@ public class EbzInventory {
         event.enqueueWork(() -> {
             try {
                 // IMPORTANTE: Primero registramos los paquetes de red para sincronización
-                com.bitzlay.ebzinventory.network.HydrationSyncPacket.register();
+                com.bitzlay.ebzinventory.network.ModNetwork.register();
                 LOGGER.info("✅ Red inicializada");
 
                 // Después inicializamos el sistema de hidratación
@@ -121,6 +125,22 @@ public class EbzInventory {
         });
     }
 
+    /**
+     * Las recetas las carga solo el servidor (dedicado o integrado); los clientes las
+     * reciben por red al conectarse.
+     */
+    @SubscribeEvent
+    public void onServerAboutToStart(ServerAboutToStartEvent event) {
+        InventoryRecipeManager.loadRecipes(InventoryRecipeManager.RECIPE_FILE, InventoryRecipeManager.RECIPE_DIR);
+        // Los registros ya están congelados: las recargas pueden validarse fuera del hilo principal
+        RecipeReloader.start(InventoryRecipeManager.RECIPE_FILE, InventoryRecipeManager.RECIPE_DIR);
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        RecipeReloader.stop();
+    }
+
     /**
      * Evento de inicio del servidor.
      */
@@ -147,6 +167,21 @@ public class EbzInventory {
             }
         }
 
+        @SubscribeEvent
+        public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+            // Las recetas pertenecen al servidor del que nos desconectamos
+            InventoryRecipeManager.clear();
+        }
+
+        @SubscribeEvent
+        public static void onItemTooltip(ItemTooltipEvent event) {
+            // Consulta directa al índice inverso; no recorre las recetas
+            int uses = InventoryRecipeManager.getRecipesUsing(event.getItemStack().getItem()).size();
+            if (uses > 0) {
+                event.getToolTip().add(Component.literal("§7Usado en " + uses + (uses == 1 ? " receta" : " recetas")));
+            }
+        }
+
         @SubscribeEvent
         public static void onRenderOverlay(RenderGuiOverlayEvent.Pre event) {
             // Cancela el renderizado de la hotbar y barras de estado vanilla
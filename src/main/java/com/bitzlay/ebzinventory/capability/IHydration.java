@@ -1,5 +1,7 @@
 package com.bitzlay.ebzinventory.capability;
 
+import com.bitzlay.ebzinventory.player.HydrationTrace;
+import com.bitzlay.ebzinventory.player.PlayerActivityData;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.player.Player;
 
@@ -71,6 +73,56 @@ public interface IHydration {
      */
     float getHydrationPercentage();
 
+    /**
+     * Indica si el nivel se alejó del último valor enviado al cliente más de {@code epsilon},
+     * o si hay un envío forzado pendiente.
+     * @param epsilon Cambio mínimo que justifica un paquete
+     * @return true si hay que sincronizar
+     */
+    boolean needsSync(float epsilon);
+
+    /**
+     * Registra el valor que se acaba de enviar al cliente.
+     * @param sentLevel Nivel enviado, ya cuantizado
+     */
+    void markSynced(float sentLevel);
+
+    /**
+     * Fuerza el próximo envío aunque el valor no haya cambiado.
+     */
+    void markDirty();
+
+    /**
+     * Actividad acumulada desde el último ciclo de hidratación. No se serializa.
+     * @return Los contadores de actividad de este jugador (siempre la misma instancia)
+     */
+    PlayerActivityData getActivity();
+
+    /**
+     * Últimos eventos de hidratación y hambre del jugador. No se serializa.
+     * @return El registro circular de este jugador (siempre la misma instancia)
+     */
+    HydrationTrace getTrace();
+
+    /**
+     * Fase del ciclo de 600 ticks que {@code MetabolismScheduler} asignó al jugador en esta
+     * sesión, o -1 si aún no se ha consultado. No se serializa.
+     */
+    int getMetabolismPhase();
+
+    void setMetabolismPhase(int phase);
+
+    /**
+     * Tiempo de juego del último ciclo de hambre e hidratación del jugador, o -1 si aún no
+     * hubo ninguno. Se guarda con el jugador para que al reconectar el ciclo siga donde iba.
+     */
+    long getLastMetabolismTime();
+
+    /**
+     * @param gameTime Tiempo de juego del ciclo que se acaba de aplicar
+     */
+    void setLastMetabolismTime(long gameTime);
+
     /**
      * Serializa los datos de hidratación a NBT.
      * @return Un CompoundTag con los datos serializados
@@ -15,6 +15,7 @@ public class InventoryRecipeButton extends Button {
     private final boolean isSelected;
     private final Minecraft minecraft;
     private final String displayName;
+    private final boolean craftable;
 
     /**
      * Constructor del botón de receta.
@@ -28,16 +29,18 @@ public class InventoryRecipeButton extends Button {
      * @param onPress Acción al presionar
      * @param isSelected Si está seleccionado
      * @param displayName Nombre a mostrar
+     * @param craftable Si el jugador tiene los materiales necesarios
      */
     public InventoryRecipeButton(int x, int y, int width, int height, String recipeId,
                                  ItemStack result, OnPress onPress, boolean isSelected,
-                                 String displayName) {
+                                 String displayName, boolean craftable) {
         super(x, y, width, height, Component.empty(), onPress, DEFAULT_NARRATION);
         this.result = result;
         this.recipeId = recipeId;
         this.isSelected = isSelected;
         this.minecraft = Minecraft.getInstance();
         this.displayName = displayName;
+        this.craftable = craftable;
     }
 
     @Override
@@ -61,10 +64,11 @@ public class InventoryRecipeButton extends Button {
         guiGraphics.renderItemDecorations(minecraft.font, result,
                 this.getX() + 8, itemY);
 
-        // Usar el displayName en lugar del nombre del item
+        // Usar el displayName en lugar del nombre del item (atenuado si faltan materiales)
+        int textColor = isHovering ? 0xFFFFA0 : (craftable ? 0xFFFFFF : 0x888888);
         guiGraphics.drawString(minecraft.font, displayName,
                 this.getX() + 35, this.getY() + (this.height - 8) / 2,
-                isHovering ? 0xFFFFA0 : 0xFFFFFF);
+                textColor);
     }
 
     private void renderBorder(GuiGraphics guiGraphics, int color) {
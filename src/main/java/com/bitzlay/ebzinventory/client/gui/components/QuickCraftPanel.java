@@ -1,12 +1,12 @@
 package com.bitzlay.ebzinventory.client.gui.components;
 
 import com.bitzlay.ebzinventory.client.gui.RustStyleInventoryScreen;
+import com.bitzlay.ebzinventory.client.gui.model.ClientCraftingQueue;
 import com.bitzlay.ebzinventory.client.gui.model.ItemCategory;
 import com.bitzlay.ebzinventory.client.gui.model.UIState;
 import com.bitzlay.ebzinventory.client.gui.render.UIRenderer;
-import com.bitzlay.ebzinventory.crafting.CraftingHelper;
+import com.bitzlay.ebzinventory.client.gui.util.CraftabilityTracker;
 import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
-import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.item.Item;
@@ -33,11 +33,11 @@ public class QuickCraftPanel {
     /** Lista de recetas disponibles para crafteo rápido */
     private List<InventoryRecipe> availableRecipes = new ArrayList<>();
 
-    /** Temporizador para actualización de recetas */
-    private int updateTicker = 0;
+    /** Seguimiento incremental de recetas crafteables */
+    private final CraftabilityTracker craftability = CraftabilityTracker.get();
 
-    /** Intervalo de actualización (en ticks, 20 ticks = 1 segundo) */
-    private static final int UPDATE_INTERVAL = 10;  // Actualización más frecuente
+    /** Última revisión del conjunto crafteable que se reflejó en el panel */
+    private int lastRevision = -1;
 
     /** Página actual de los crafteos rápidos */
     private int currentPage = 0;
@@ -67,13 +67,11 @@ public class QuickCraftPanel {
     }
 
     /**
-     * Actualiza las recetas periódicamente durante el renderizado
+     * Actualiza las recetas solo cuando el conjunto crafteable ha cambiado
      */
     public void update() {
-        updateTicker++;
-        if (updateTicker >= UPDATE_INTERVAL) {
+        if (craftability.getRevision() != lastRevision) {
             refreshAvailableRecipes();
-            updateTicker = 0;
         }
     }
 
@@ -196,7 +194,7 @@ public class QuickCraftPanel {
                 tooltipLines.add(Component.literal(""));
                 tooltipLines.add(Component.literal("§6§lMateriales:"));
                 for (Map.Entry<Item, Integer> ingredient : recipe.getIngredients().entrySet()) {
-                    int playerHas = screen.getPlayer().getInventory().countItem(ingredient.getKey());
+                    int playerHas = craftability.getCount(ingredient.getKey());
                     String color = playerHas >= ingredient.getValue() ? "§a" : "§c";
                     tooltipLines.add(Component.literal(
                             color + ingredient.getValue() + "x " + new ItemStack(ingredient.getKey()).getHoverName().getString() +
@@ -407,13 +405,9 @@ public class QuickCraftPanel {
     private void startCrafting(InventoryRecipe recipe) {
         if (screen.getPlayer() == null) return;
 
-        // Usar CraftingHelper para manejar todo el proceso de crafteo
-        boolean success = CraftingHelper.startCrafting(screen.getPlayer(), recipe);
-
-        // Si el crafteo fue exitoso, actualizar la lista de recetas
-        if (success) {
-            refreshAvailableRecipes();
-        }
+        // El servidor consume los materiales; la lista se actualiza sola cuando
+        // el seguimiento de crafteabilidad detecta el cambio de inventario
+        ClientCraftingQueue.requestCraft(recipe);
     }
 
     /**
@@ -425,17 +419,17 @@ public class QuickCraftPanel {
             return;
         }
 
+        // Sincronizar el seguimiento con el inventario actual (p. ej. justo después de craftear)
+        craftability.refresh(screen.getPlayer());
+        lastRevision = craftability.getRevision();
+
         availableRecipes = new ArrayList<>();
 
-        // Obtener todas las recetas disponibles de todas las categorías
+        // Filtrar las recetas crafteables a las categorías visibles
         Map<String, ItemCategory> categories = uiState.getCategories();
-        for (String category : categories.keySet()) {
-            List<InventoryRecipe> categoryRecipes = InventoryRecipeManager.getRecipesByCategory(category);
-
-            for (InventoryRecipe recipe : categoryRecipes) {
-                if (CraftingHelper.canCraft(screen.getPlayer(), recipe)) {
-                    availableRecipes.add(recipe);
-                }
+        for (InventoryRecipe recipe : craftability.getCraftableRecipes()) {
+            if (categories.containsKey(recipe.getCategory())) {
+                availableRecipes.add(recipe);
             }
         }
 
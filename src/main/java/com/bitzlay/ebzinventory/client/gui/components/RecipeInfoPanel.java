@@ -1,9 +1,12 @@
 package com.bitzlay.ebzinventory.client.gui.components;
 
 import com.bitzlay.ebzinventory.client.gui.RustStyleInventoryScreen;
+import com.bitzlay.ebzinventory.client.gui.model.ClientCraftingQueue;
 import com.bitzlay.ebzinventory.client.gui.model.UIState;
 import com.bitzlay.ebzinventory.client.gui.render.UIRenderer;
+import com.bitzlay.ebzinventory.client.gui.util.CraftabilityTracker;
 import com.bitzlay.ebzinventory.crafting.CraftingHelper;
+import com.bitzlay.ebzinventory.crafting.CraftingPlanner;
 import com.bitzlay.ebzinventory.crafting.CraftingQueueHandler;
 import com.bitzlay.ebzinventory.crafting.CraftingQueueItem;
 import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
@@ -29,6 +32,9 @@ public class RecipeInfoPanel {
     /** Renderizador de UI */
     private final UIRenderer uiRenderer;
 
+    /** Seguimiento incremental de recetas crafteables */
+    private final CraftabilityTracker craftability = CraftabilityTracker.get();
+
     /**
      * Constructor del panel de información de receta.
      *
@@ -125,8 +131,7 @@ public class RecipeInfoPanel {
                 guiGraphics.renderItem(ingredientStack, itemX, itemY);
 
                 // Mejorar visualización de conteo
-                int playerHas = screen.getPlayer() != null ?
-                        screen.getPlayer().getInventory().countItem(ingredient.getKey()) : 0;
+                int playerHas = craftability.getCount(ingredient.getKey());
                 boolean hasEnough = playerHas >= ingredient.getValue();
 
                 // Formato "tienes/necesitas" con colores claros
@@ -150,20 +155,33 @@ public class RecipeInfoPanel {
 
             // Ajustar contentY para el botón de crafteo
             contentY += (itemsPerColumn * itemSpacing) + 10;
+
+            // Cuántas unidades permite el inventario actual
+            int maxCraftable = craftability.maxCraftable(selectedRecipe);
+            guiGraphics.drawString(screen.getMinecraftInstance().font, "Puedes craftear: " + maxCraftable,
+                    contentX, contentY, maxCraftable > 0 ? 0x55FF55 : 0xAAAAAA);
+            contentY += spacing;
         }
 
         // Botón de crafteo con mejor posicionamiento
-        final boolean canCraft = CraftingHelper.canCraft(screen.getPlayer(), selectedRecipe);
-        final List<CraftingQueueItem> queue = CraftingQueueHandler.getPlayerQueue(screen.getPlayer().getUUID());
+        final boolean canCraft = craftability.isCraftable(selectedRecipe);
+        final List<CraftingQueueItem> queue = ClientCraftingQueue.getQueue();
         final String buttonText;
         final boolean enableButton;
 
-        if (queue.size() >= MAX_QUEUE_SIZE) {
+        if (queue.size() >= CraftingQueueHandler.MAX_QUEUE_SIZE) {
             buttonText = "Cola llena";
             enableButton = false;
         } else if (!canCraft) {
-            buttonText = "Faltan materiales";
-            enableButton = false;
+            // Si los intermedios pueden fabricarse, el servidor encola la cadena completa
+            CraftingPlanner.Plan chain = craftability.planChain(selectedRecipe);
+            if (chain != null && chain.isFeasible() && queue.size() + chain.getSteps().size() <= CraftingQueueHandler.MAX_QUEUE_SIZE) {
+                buttonText = "Craftear (" + chain.getSteps().size() + " pasos)";
+                enableButton = true;
+            } else {
+                buttonText = "Faltan materiales";
+                enableButton = false;
+            }
         } else {
             buttonText = "Craftear";
             enableButton = true;
@@ -176,31 +194,41 @@ public class RecipeInfoPanel {
         // Crear referencia final para la lambda
         final InventoryRecipe finalRecipe = selectedRecipe;
 
+        // Botón "Máx" a la derecha: un solo lote con todo lo que permite el inventario
+        int maxButtonWidth = guiScale >= 4 ? 30 : 36;
+        int craftButtonWidth = buttonWidth - maxButtonWidth - 4;
+        int buttonX = x + (width - buttonWidth) / 2;
+        int buttonY = y + panelHeight - buttonHeight - 10;
+
         Button craftButton = Button.builder(Component.literal(buttonText),
-                        button -> { if (enableButton) startCrafting(finalRecipe); })
-                .pos(x + (width - buttonWidth) / 2, y + panelHeight - buttonHeight - 10)
-                .size(buttonWidth, buttonHeight)
+                        button -> { if (enableButton) startCrafting(finalRecipe, 1); })
+                .pos(buttonX, buttonY)
+                .size(craftButtonWidth, buttonHeight)
+                .build();
+
+        Button maxButton = Button.builder(Component.literal("Máx"),
+                        button -> { if (enableButton) startCrafting(finalRecipe, CraftingHelper.CRAFT_MAX); })
+                .pos(buttonX + craftButtonWidth + 4, buttonY)
+                .size(maxButtonWidth, buttonHeight)
                 .build();
 
         craftButton.active = enableButton;
+        maxButton.active = enableButton;
         screen.addWidget(craftButton);
+        screen.addWidget(maxButton);
     }
 
-    // Máximo tamaño de cola
-    private static final int MAX_QUEUE_SIZE = 11;
-
     /**
      * Inicia el crafteo de una receta.
      *
      * @param recipe Receta a craftear
+     * @param count  Unidades, o {@link CraftingHelper#CRAFT_MAX} para el máximo
      */
-    private void startCrafting(InventoryRecipe recipe) {
+    private void startCrafting(InventoryRecipe recipe, int count) {
         if (screen.getPlayer() == null) return;
 
-        // Usar CraftingHelper para manejar todo el proceso de crafteo
-        boolean success = CraftingHelper.startCrafting(screen.getPlayer(), recipe);
-
-        // No se necesita hacer nada más aquí, ya que CraftingHelper maneja todos los mensajes y sonidos
+        // El servidor valida y consume los materiales; los mensajes y sonidos llegan desde allí
+        ClientCraftingQueue.requestCraft(recipe, count);
     }
 
     /**
@@ -3,6 +3,7 @@ package com.bitzlay.ebzinventory.client.gui.components;
 import com.bitzlay.ebzinventory.client.gui.RustStyleInventoryScreen;
 import com.bitzlay.ebzinventory.client.gui.model.UIState;
 import com.bitzlay.ebzinventory.client.gui.render.UIRenderer;
+import com.bitzlay.ebzinventory.client.gui.util.CraftabilityTracker;
 import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
 import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
 import net.minecraft.client.gui.GuiGraphics;
@@ -24,6 +25,9 @@ public class RecipePanel {
     /** Renderizador de UI */
     private final UIRenderer uiRenderer;
 
+    /** Seguimiento incremental de recetas crafteables */
+    private final CraftabilityTracker craftability = CraftabilityTracker.get();
+
     /**
      * Constructor del panel de recetas.
      *
@@ -146,7 +150,8 @@ public class RecipePanel {
                     recipe.getResult(),
                     button -> selectRecipe(recipe),
                     recipe == uiState.getSelectedRecipe(),
-                    truncatedName
+                    truncatedName,
+                    craftability.isCraftable(recipe)
             );
             screen.addWidget(recipeButton);
         }
@@ -0,0 +1,179 @@
+package com.bitzlay.ebzinventory.client.gui.model;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.crafting.CraftingHelper;
+import com.bitzlay.ebzinventory.crafting.CraftingQueueItem;
+import com.bitzlay.ebzinventory.network.CraftActionPacket;
+import com.bitzlay.ebzinventory.network.ModNetwork;
+import com.bitzlay.ebzinventory.network.QueueDeltaPacket;
+import com.bitzlay.ebzinventory.network.QueueSyncPacket;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Copia en el cliente de la cola de crafteo del jugador local.
+ *
+ * El servidor envía la cola completa al conectarse y después solo cambios
+ * ({@link QueueDeltaPacket}) con el tick de inicio y la duración de cada entrada. El tick
+ * actual del servidor se estima sumando los ticks de cliente transcurridos desde la última
+ * referencia más el {@code partialTick}, así que las barras avanzan de forma continua sin
+ * tráfico de red. Una referencia que llega con poco desfase no mueve el reloj, para que
+ * la variación de latencia no haga saltar las barras.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID, value = Dist.CLIENT)
+public class ClientCraftingQueue {
+    /** Desfase en ticks que se tolera antes de corregir el reloj estimado */
+    private static final long MAX_CLOCK_DRIFT = 2;
+
+    private static List<CraftingQueueItem> queue = Collections.emptyList();
+    private static int lanes = 1;
+    private static long clientTicks;
+    private static long serverTickAtSync;
+    private static long clientTickAtSync;
+
+    /**
+     * Cola tal como la conoce el cliente (inmutable).
+     */
+    public static List<CraftingQueueItem> getQueue() {
+        return queue;
+    }
+
+    /**
+     * Entradas que avanzan a la vez según el servidor.
+     */
+    public static int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Tick de servidor estimado en este momento.
+     */
+    public static long currentServerTick() {
+        return serverTickAtSync + (clientTicks - clientTickAtSync);
+    }
+
+    /**
+     * Tiempo de servidor estimado con fracción de tick, para interpolar entre ticks.
+     */
+    public static double currentServerTime(float partialTick) {
+        return currentServerTick() + partialTick;
+    }
+
+    public static void requestCraft(InventoryRecipe recipe) {
+        requestCraft(recipe, 1);
+    }
+
+    /**
+     * Pide un lote de {@code count} unidades, o {@link CraftingHelper#CRAFT_MAX} para el máximo.
+     */
+    public static void requestCraft(InventoryRecipe recipe, int count) {
+        ModNetwork.CHANNEL.sendToServer(CraftActionPacket.start(recipe.getId(), count));
+    }
+
+    public static void requestCancel(int index) {
+        ModNetwork.CHANNEL.sendToServer(CraftActionPacket.cancel(index));
+    }
+
+    public static void requestClear() {
+        ModNetwork.CHANNEL.sendToServer(CraftActionPacket.clear());
+    }
+
+    public static void onSync(QueueSyncPacket msg) {
+        List<CraftingQueueItem> items = new ArrayList<>(msg.getEntries().size());
+        for (QueueSyncPacket.Entry entry : msg.getEntries()) {
+            items.add(fromEntry(entry));
+        }
+
+        queue = Collections.unmodifiableList(items);
+        lanes = Math.max(1, msg.getLanes());
+        syncClock(msg.getServerTick(), true);
+    }
+
+    public static void onDelta(QueueDeltaPacket msg) {
+        List<CraftingQueueItem> items = new ArrayList<>(queue);
+        for (QueueDeltaPacket.Op op : msg.getOps()) {
+            if (!apply(items, op)) {
+                // La copia local no encaja con el servidor: se pide la cola completa
+                EbzInventory.LOGGER.debug("Cambio de cola fuera de rango ({}); se pide la cola completa", op.type);
+                ModNetwork.CHANNEL.sendToServer(CraftActionPacket.sync());
+                return;
+            }
+        }
+        queue = Collections.unmodifiableList(items);
+        syncClock(msg.getServerTick(), false);
+    }
+
+    private static boolean apply(List<CraftingQueueItem> items, QueueDeltaPacket.Op op) {
+        if (op.type == QueueDeltaPacket.ENQUEUE) {
+            items.add(fromEntry(op.entry));
+            return true;
+        }
+        if (op.type == QueueDeltaPacket.LANES) {
+            lanes = Math.max(1, (int) op.value);
+            return true;
+        }
+        if (op.index < 0 || op.index >= items.size()) return false;
+
+        CraftingQueueItem item = items.get(op.index);
+        switch (op.type) {
+            case QueueDeltaPacket.START -> items.set(op.index, with(item, item.getCompletedCrafts(), op.value, item.getElapsedTicks()));
+            case QueueDeltaPacket.PAUSE -> items.set(op.index, with(item, item.getCompletedCrafts(), CraftingQueueItem.NOT_STARTED, op.value));
+            case QueueDeltaPacket.STEP -> items.set(op.index, with(item, (int) op.value, CraftingQueueItem.NOT_STARTED, 0));
+            case QueueDeltaPacket.COMPLETE, QueueDeltaPacket.CANCEL -> items.remove(op.index);
+            case QueueDeltaPacket.REORDER -> {
+                if (op.value < 0 || op.value >= items.size()) return false;
+                items.add((int) op.value, items.remove(op.index));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CraftingQueueItem fromEntry(QueueSyncPacket.Entry entry) {
+        Minecraft minecraft = Minecraft.getInstance();
+        UUID playerId = minecraft.player != null ? minecraft.player.getUUID() : null;
+        InventoryRecipe recipe = InventoryRecipeManager.getRecipe(entry.recipeId);
+        return CraftingQueueItem.restore(entry.recipeId, playerId, recipe, entry.ticksPerCraft,
+                entry.crafts, entry.completedCrafts, entry.stride, entry.startTick, entry.elapsedTicks);
+    }
+
+    private static CraftingQueueItem with(CraftingQueueItem item, int completedCrafts, long startTick, long elapsedTicks) {
+        return CraftingQueueItem.restore(item.getRecipeId(), item.getPlayerId(), item.getRecipe(), item.getTicksPerCraft(),
+                item.getCrafts(), completedCrafts, item.getStride(), startTick, elapsedTicks);
+    }
+
+    private static void syncClock(long serverTick, boolean force) {
+        if (force || Math.abs(serverTick - currentServerTick()) > MAX_CLOCK_DRIFT) {
+            serverTickAtSync = serverTick;
+            clientTickAtSync = clientTicks;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && !Minecraft.getInstance().isPaused()) {
+            clientTicks++;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        queue = Collections.emptyList();
+        lanes = 1;
+        serverTickAtSync = 0;
+        clientTickAtSync = clientTicks;
+    }
+}
@@ -4,8 +4,8 @@ import com.bitzlay.ebzinventory.client.gui.RustStyleInventoryScreen;
 import com.bitzlay.ebzinventory.client.gui.components.CategoryManager;
 import com.bitzlay.ebzinventory.client.gui.components.RecipeInfoPanel;
 import com.bitzlay.ebzinventory.client.gui.components.RecipePanel;
+import com.bitzlay.ebzinventory.client.gui.model.ClientCraftingQueue;
 import com.bitzlay.ebzinventory.client.gui.model.UIState;
-import com.bitzlay.ebzinventory.crafting.CraftingQueueHandler;
 import com.bitzlay.ebzinventory.crafting.CraftingQueueItem;
 import net.minecraft.client.gui.GuiGraphics;
 
@@ -155,7 +155,7 @@ public class CraftingRenderer {
         recipeInfoPanel.render(guiGraphics, infoX, craftingY + 50, uiState.getInfoWidth(), infoPanelHeight);
 
         // Cola de crafteo
-        List<CraftingQueueItem> queue = CraftingQueueHandler.getPlayerQueue(screen.getPlayer().getUUID());
+        List<CraftingQueueItem> queue = ClientCraftingQueue.getQueue();
         if (!queue.isEmpty()) {
             uiRenderer.renderInventoryBackground(guiGraphics, queueX - 5, craftingY + 50, uiState.getQueueWidth() + 10, queuePanelHeight);
             queueRenderer.renderCraftingQueue(guiGraphics, queueX, craftingY + 50, uiState.getQueueWidth(), queuePanelHeight);
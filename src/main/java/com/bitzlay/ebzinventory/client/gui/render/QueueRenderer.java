@@ -1,16 +1,13 @@
 package com.bitzlay.ebzinventory.client.gui.render;
 
 import com.bitzlay.ebzinventory.client.gui.RustStyleInventoryScreen;
+import com.bitzlay.ebzinventory.client.gui.model.ClientCraftingQueue;
 import com.bitzlay.ebzinventory.client.gui.model.UIState;
-import com.bitzlay.ebzinventory.crafting.CraftingQueueHandler;
 import com.bitzlay.ebzinventory.crafting.CraftingQueueItem;
-import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
 import net.minecraft.client.gui.GuiGraphics;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Renderizador para la cola de crafteo.
@@ -49,14 +46,17 @@ public class QueueRenderer {
     public void renderCraftingQueue(GuiGraphics guiGraphics, int x, int y, int width, int panelHeight) {
         if (screen.getMinecraftInstance().player == null) return;
 
-        List<CraftingQueueItem> queue = CraftingQueueHandler.getPlayerQueue(screen.getMinecraftInstance().player.getUUID());
+        List<CraftingQueueItem> queue = ClientCraftingQueue.getQueue();
         if (queue.isEmpty()) return;
 
         // Obtener escala GUI para ajustes específicos
         float guiScale = uiState.getGuiScale();
 
         // Panel principal con título
-        uiRenderer.renderPanel(guiGraphics, x, y, width, panelHeight, "Cola de Crafteo", screen.getMinecraftInstance().font);
+        // Con varias líneas, cada entrada en marcha muestra su propia barra de progreso
+        int lanes = ClientCraftingQueue.getLanes();
+        String title = lanes > 1 ? "Cola de Crafteo (" + lanes + " líneas)" : "Cola de Crafteo";
+        uiRenderer.renderPanel(guiGraphics, x, y, width, panelHeight, title, screen.getMinecraftInstance().font);
 
         // Botón para cancelar toda la cola - versión más grande y clara
         int cancelAllX = x + width - 25;
@@ -89,7 +89,7 @@ public class QueueRenderer {
 
         // Procesar clics
         if (hoveringCancelAll && screen.isMouseDown()) {
-            CraftingQueueHandler.clearQueue(screen.getMinecraftInstance().player.getUUID());
+            ClientCraftingQueue.requestClear();
 
             // Reproducir sonido de feedback
             screen.getMinecraftInstance().player.playSound(
@@ -253,6 +253,10 @@ public class QueueRenderer {
 
         // Nombre del item - Acortado y con elipsis si es necesario
         String itemName = item.getRecipe() != null ? item.getRecipe().getDisplayName() : "Item";
+        if (item.getCrafts() > 1) {
+            // Lotes: unidades entregadas sobre el total
+            itemName = item.getCompletedCrafts() + "/" + item.getCrafts() + " " + itemName;
+        }
 
         // Calcular ancho máximo disponible para el nombre
         int maxNameWidth = width - 85; // Asegurar suficiente espacio para todo
@@ -264,7 +268,7 @@ public class QueueRenderer {
         guiGraphics.drawString(screen.getMinecraftInstance().font, itemName, x + 25, y + 3, 0xFFFFFFFF);
 
         // Porcentaje a la derecha del nombre, con suficiente separación y asegurando que quepa
-        float progress = item.getProgress() * 100;
+        float progress = item.getProgress(currentTime()) * 100;
         String percentage = String.format("%.0f%%", progress);
 
         // Calcular posición X para el porcentaje garantizando que quede dentro del panel
@@ -351,7 +355,7 @@ public class QueueRenderer {
         guiGraphics.fill(x + width - 1, barY, x + width, barY + barHeight, 0xFF333333);
 
         // Progreso con color apropiado
-        float progress = item.getProgress();
+        float progress = item.getProgress(currentTime());
         progress = Math.max(0.0f, Math.min(1.0f, progress)); // Validar rango
 
         int progressWidth = (int)(width * progress);
@@ -369,6 +373,13 @@ public class QueueRenderer {
         }
     }
 
+    /**
+     * Tiempo de servidor estimado para este fotograma, interpolado con el partialTick.
+     */
+    private double currentTime() {
+        return ClientCraftingQueue.currentServerTime(screen.getMinecraftInstance().getFrameTime());
+    }
+
     /**
      * Cancela un item de crafteo.
      *
@@ -376,21 +387,8 @@ public class QueueRenderer {
      * @param index Índice en la cola
      */
     private void cancelCrafting(CraftingQueueItem item, int index) {
-        // Devolver materiales si el progreso es menor que 100%
-        if (item.getProgress() < 1.0f) {
-            InventoryRecipe recipe = item.getRecipe();
-            if (recipe != null && screen.getMinecraftInstance().player != null) {
-                for (Map.Entry<Item, Integer> ingredient : recipe.getIngredients().entrySet()) {
-                    ItemStack returnStack = new ItemStack(ingredient.getKey(), ingredient.getValue());
-                    if (!screen.getMinecraftInstance().player.getInventory().add(returnStack)) {
-                        screen.getMinecraftInstance().player.drop(returnStack, false);
-                    }
-                }
-            }
-        }
-
-        // Cancelar este crafteo específico
-        CraftingQueueHandler.cancelItem(screen.getMinecraftInstance().player.getUUID(), index);
+        // El servidor reembolsa lo retirado según el recibo del item
+        ClientCraftingQueue.requestCancel(index);
     }
 
     /**
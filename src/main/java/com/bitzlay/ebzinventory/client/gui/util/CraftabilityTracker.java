@@ -0,0 +1,223 @@
+package com.bitzlay.ebzinventory.client.gui.util;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.config.CraftingConfig;
+import com.bitzlay.ebzinventory.crafting.CraftableSet;
+import com.bitzlay.ebzinventory.crafting.CraftingPlanner;
+import com.bitzlay.ebzinventory.crafting.InventorySnapshot;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import com.bitzlay.ebzinventory.recipe.RecipeSnapshot;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Seguimiento incremental de las recetas que el jugador local puede craftear.
+ *
+ * El cliente no recibe eventos de cambio por slot (los stacks se modifican en sitio),
+ * así que cada tick se compara el inventario con el último estado observado. Esa
+ * comparación cuesta O(slots); solo las recetas que usan los items que cambiaron se
+ * vuelven a evaluar, de modo que el coste depende del tamaño del cambio y no del
+ * número de recetas. El seguimiento en sí lo hace {@link CraftableSet} sobre los ids de
+ * los items; esta clase le pasa el inventario del jugador y traduce a recetas.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID, value = Dist.CLIENT)
+public class CraftabilityTracker {
+    private static final CraftabilityTracker INSTANCE = new CraftabilityTracker();
+
+    /** Slots del inventario principal (hotbar incluida) */
+    private static final int SLOT_COUNT = InventorySnapshot.CRAFTING_SLOTS;
+
+    // Instantánea de recetas sobre la que se calcula el conjunto crafteable
+    private RecipeSnapshot snapshot;
+
+    // Inventario observado y recetas crafteables, indexadas por su posición en la instantánea
+    private final CraftableSet craftable = new CraftableSet(SLOT_COUNT);
+    private List<InventoryRecipe> craftableView = Collections.emptyList();
+    private boolean viewStale = true;
+
+    // Última cadena de subcomponentes calculada; se descarta cuando cambia el inventario
+    private InventoryRecipe plannedRecipe;
+    private CraftingPlanner.Plan plannedChain;
+    private int plannedDepth;
+    private int plannedBatch;
+
+    /** Aumenta cada vez que cambia el conjunto de recetas crafteables */
+    private int revision = 0;
+
+    private Player trackedPlayer;
+
+    private CraftabilityTracker() {
+    }
+
+    public static CraftabilityTracker get() {
+        return INSTANCE;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        INSTANCE.refresh(Minecraft.getInstance().player);
+    }
+
+    /**
+     * Compara el inventario con el último estado observado y reevalúa las recetas afectadas.
+     * Es barato llamarlo varias veces en el mismo tick (por ejemplo, justo después de craftear).
+     *
+     * @param player Jugador local, o null si no hay partida
+     */
+    public void refresh(Player player) {
+        if (player == null) {
+            if (trackedPlayer != null) {
+                reset();
+                trackedPlayer = null;
+            }
+            return;
+        }
+
+        boolean fullEvaluation = false;
+        if (player != trackedPlayer) {
+            reset();
+            trackedPlayer = player;
+            fullEvaluation = true;
+        }
+
+        RecipeSnapshot current = InventoryRecipeManager.getSnapshot();
+        if (current != snapshot) {
+            snapshot = current;
+            loadRecipes(current);
+            fullEvaluation = true;
+        }
+
+        scanInventory(player.getInventory());
+
+        boolean inventoryChanged = craftable.hasChanges();
+        if (fullEvaluation || inventoryChanged) {
+            plannedChain = null;
+        }
+        if (fullEvaluation) {
+            craftable.evaluateAll();
+            markChanged();
+        } else if (inventoryChanged && craftable.evaluateDirty()) {
+            markChanged();
+        }
+    }
+
+    /**
+     * Indica si la receta puede craftearse con el inventario observado.
+     */
+    public boolean isCraftable(InventoryRecipe recipe) {
+        if (recipe == null) return false;
+        int ordinal = snapshot != null ? snapshot.indexOf(recipe) : -1;
+        if (ordinal < 0) {
+            // Receta fuera de la instantánea actual: la evaluamos directamente
+            return craftable.getCounts().canCraft(recipe);
+        }
+        return craftable.isCraftable(ordinal);
+    }
+
+    /**
+     * Recetas crafteables en el orden de la instantánea.
+     *
+     * @return Lista inmutable, reutilizada mientras no haya cambios
+     */
+    public List<InventoryRecipe> getCraftableRecipes() {
+        if (viewStale) {
+            List<InventoryRecipe> recipes = snapshot != null ? snapshot.getRecipes() : Collections.emptyList();
+            List<InventoryRecipe> view = new ArrayList<>(craftable.craftableCount());
+            for (int i = craftable.nextCraftable(0); i >= 0; i = craftable.nextCraftable(i + 1)) {
+                view.add(recipes.get(i));
+            }
+            craftableView = Collections.unmodifiableList(view);
+            viewStale = false;
+        }
+        return craftableView;
+    }
+
+    /**
+     * Cantidad total de un item en el inventario observado.
+     */
+    public int getCount(Item item) {
+        return craftable.getCounts().count(item);
+    }
+
+    /**
+     * Número de veces que la receta puede craftearse con el inventario observado.
+     */
+    public int maxCraftable(InventoryRecipe recipe) {
+        return recipe != null ? craftable.getCounts().maxCraftable(recipe) : 0;
+    }
+
+    /**
+     * Cadena de subcomponentes para una unidad de la receta con el inventario observado.
+     * Usa los mismos límites que el servidor, cuya configuración recibe el cliente al
+     * conectarse. Se recalcula solo cuando cambia el inventario, la receta o esos límites.
+     *
+     * @return null si el servidor no fabrica subcomponentes
+     */
+    public CraftingPlanner.Plan planChain(InventoryRecipe recipe) {
+        if (!CraftingConfig.PLAN_SUBCOMPONENTS.get()) return null;
+
+        int maxDepth = CraftingConfig.PLAN_MAX_DEPTH.get();
+        int maxBatch = CraftingConfig.MAX_BATCH_SIZE.get();
+        if (plannedChain == null || recipe != plannedRecipe
+                || maxDepth != plannedDepth || maxBatch != plannedBatch) {
+            RecipeSnapshot recipes = snapshot != null ? snapshot : InventoryRecipeManager.getSnapshot();
+            plannedChain = CraftingPlanner.plan(recipes.getGraph(), craftable.getCounts(), recipe, 1, maxDepth, maxBatch);
+            plannedRecipe = recipe;
+            plannedDepth = maxDepth;
+            plannedBatch = maxBatch;
+        }
+        return plannedChain;
+    }
+
+    /**
+     * Revisión del conjunto crafteable. Los paneles la comparan para saber si deben refrescarse.
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    private void reset() {
+        craftable.reset();
+        markChanged();
+    }
+
+    private void loadRecipes(RecipeSnapshot recipes) {
+        List<InventoryRecipe> list = recipes.getRecipes();
+        int[][] ids = new int[list.size()][];
+        int[][] amounts = new int[list.size()][];
+        for (int i = 0; i < list.size(); i++) {
+            ids[i] = list.get(i).getIngredientIds();
+            amounts[i] = list.get(i).getIngredientAmounts();
+        }
+        craftable.setRecipes(ids, amounts);
+    }
+
+    private void scanInventory(Inventory inventory) {
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            ItemStack stack = inventory.items.get(slot);
+            if (stack.isEmpty()) {
+                craftable.updateSlot(slot, -1, 0);
+            } else {
+                craftable.updateSlot(slot, Item.getId(stack.getItem()), stack.getCount());
+            }
+        }
+    }
+
+    private void markChanged() {
+        viewStale = true;
+        revision++;
+    }
+}
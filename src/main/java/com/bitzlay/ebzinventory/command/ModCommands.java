@@ -0,0 +1,91 @@
+package com.bitzlay.ebzinventory.command;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.capability.IHydration;
+import com.bitzlay.ebzinventory.crafting.CraftingMetrics;
+import com.bitzlay.ebzinventory.player.MetabolismScheduler;
+import com.bitzlay.ebzinventory.player.PlayerHydrationManager;
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.List;
+
+/**
+ * Comandos del mod, bajo {@code /ebzinventory}. Requieren nivel de permiso 2 (operador).
+ *
+ * {@code stats crafting [reset]}, {@code stats metabolism} y {@code hydration trace <jugador>}.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public class ModCommands {
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(EbzInventory.MOD_ID)
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats")
+                        .then(Commands.literal("crafting")
+                                .executes(context -> showCraftingStats(context.getSource()))
+                                .then(Commands.literal("reset")
+                                        .executes(context -> resetCraftingStats(context.getSource()))))
+                        .then(Commands.literal("metabolism")
+                                .executes(context -> showMetabolismStats(context.getSource()))))
+                .then(Commands.literal("hydration")
+                        .then(Commands.literal("trace")
+                                .then(Commands.argument("player", EntityArgument.player())
+                                        .executes(context -> showHydrationTrace(context.getSource(),
+                                                EntityArgument.getPlayer(context, "player")))))));
+    }
+
+    private static int showCraftingStats(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.literal("§6Métricas de crafteo"), false);
+        for (String line : CraftingMetrics.summary()) {
+            source.sendSuccess(() -> Component.literal("§7" + line), false);
+        }
+        return 1;
+    }
+
+    private static int showMetabolismStats(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.literal("§6Reparto del ciclo de hambre e hidratación"), false);
+        for (String line : MetabolismScheduler.summary()) {
+            source.sendSuccess(() -> Component.literal("§7" + line), false);
+        }
+        return 1;
+    }
+
+    private static int showHydrationTrace(CommandSourceStack source, ServerPlayer player) {
+        IHydration hydrationData = PlayerHydrationManager.getHydrationDataDirect(player);
+        if (hydrationData == null) {
+            source.sendFailure(Component.literal("El jugador no tiene datos de hidratación"));
+            return 0;
+        }
+
+        String name = player.getName().getString();
+        source.sendSuccess(() -> Component.literal(String.format("§6Traza de %s §7(hidratación %.2f, comida %d)",
+                name, hydrationData.getHydrationLevel(), player.getFoodData().getFoodLevel())), false);
+        List<String> lines = hydrationData.getTrace().describe(player.level().getGameTime());
+        if (lines.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("§7Sin eventos registrados"), false);
+        }
+        for (String line : lines) {
+            source.sendSuccess(() -> Component.literal("§7" + line), false);
+        }
+        return lines.size();
+    }
+
+    private static int resetCraftingStats(CommandSourceStack source) {
+        CraftingMetrics.reset();
+        source.sendSuccess(() -> Component.literal("§aMétricas de crafteo reiniciadas"), true);
+        return 1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.bitzlay.ebzinventory.config;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.fml.ModLoadingContext;
+import net.minecraftforge.fml.config.ModConfig;
+
+/**
+ * Configuración del servidor para la cola de crafteo ({@code ebzinventory-crafting-server.toml}).
+ */
+public class CraftingConfig {
+    private static final ForgeConfigSpec.Builder SERVER_BUILDER = new ForgeConfigSpec.Builder();
+
+    public static final ForgeConfigSpec.IntValue MAX_BATCH_SIZE;
+    public static final ForgeConfigSpec.IntValue BATCH_STRIDE;
+    public static final ForgeConfigSpec.IntValue BASE_LANES;
+    public static final ForgeConfigSpec.IntValue WORKBENCH_LANES;
+    public static final ForgeConfigSpec.IntValue WORKBENCH_RADIUS;
+    public static final ForgeConfigSpec.BooleanValue PLAN_SUBCOMPONENTS;
+    public static final ForgeConfigSpec.IntValue PLAN_MAX_DEPTH;
+    public static final ForgeConfigSpec.IntValue STATS_LOG_INTERVAL;
+
+    static {
+        SERVER_BUILDER.comment("Configuración de la cola de crafteo").push("crafting");
+
+        MAX_BATCH_SIZE = SERVER_BUILDER
+                .comment("Máximo de unidades que puede pedir una sola entrada de la cola",
+                        "El botón \"máximo\" nunca pide más que esto")
+                .defineInRange("maxBatchSize", 256, 1, 4096);
+
+        BATCH_STRIDE = SERVER_BUILDER
+                .comment("Cuántas unidades de un lote se entregan de una vez",
+                        "1 = una a una; valores más altos = menos entregas y menos paquetes")
+                .defineInRange("batchStride", 1, 1, 64);
+
+        BASE_LANES = SERVER_BUILDER
+                .comment("Entradas de la cola que avanzan a la vez para cada jugador")
+                .defineInRange("baseLanes", 1, 1, 8);
+
+        WORKBENCH_LANES = SERVER_BUILDER
+                .comment("Líneas extra si hay una mesa de crafteo cerca del jugador",
+                        "El permiso ebzinventory.crafting.extra_lanes suma más líneas por jugador")
+                .defineInRange("workbenchLanes", 1, 0, 8);
+
+        WORKBENCH_RADIUS = SERVER_BUILDER
+                .comment("Distancia en bloques a la que cuenta una mesa de crafteo")
+                .defineInRange("workbenchRadius", 4, 1, 8);
+
+        PLAN_SUBCOMPONENTS = SERVER_BUILDER
+                .comment("Si faltan ingredientes intermedios, fabricarlos con sus propias recetas",
+                        "Toda la cadena se paga al pedirla y se encola en orden de dependencia")
+                .define("planSubcomponents", true);
+
+        PLAN_MAX_DEPTH = SERVER_BUILDER
+                .comment("Niveles de subcomponentes que pueden fabricarse bajo la receta pedida")
+                .defineInRange("planMaxDepth", 4, 0, 16);
+
+        STATS_LOG_INTERVAL = SERVER_BUILDER
+                .comment("Minutos entre resúmenes de métricas de crafteo en el log (0 = desactivado)",
+                        "Solo se escribe si hubo actividad; /ebzinventory stats crafting las muestra en cualquier momento")
+                .defineInRange("statsLogInterval", 10, 0, 1440);
+
+        SERVER_BUILDER.pop();
+    }
+
+    public static final ForgeConfigSpec SERVER_CONFIG = SERVER_BUILDER.build();
+
+    /**
+     * Registra la configuración con Forge
+     */
+    public static void init() {
+        ModLoadingContext.get().registerConfig(ModConfig.Type.SERVER, SERVER_CONFIG, "ebzinventory-crafting-server.toml");
+        EbzInventory.LOGGER.info("Configuración de crafteo registrada");
+    }
+}
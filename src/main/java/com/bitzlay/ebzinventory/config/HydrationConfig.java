@@ -24,6 +24,9 @@ public class HydrationConfig {
     public static final ForgeConfigSpec.DoubleValue HYDRATION_DECREASE_INTERVAL;
     public static final ForgeConfigSpec.DoubleValue HYDRATION_DECREASE_AMOUNT;
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> HYDRATION_ITEMS; // Añadido este campo faltante
+    public static final ForgeConfigSpec.DoubleValue SYNC_EPSILON;
+    public static final ForgeConfigSpec.IntValue SYNC_KEEPALIVE_TICKS;
+    public static final ForgeConfigSpec.IntValue METABOLISM_BUDGET_PER_TICK;
 
     // Mapa para almacenar los valores de hidratación
     private static final Map<Item, Float> hydrationValues = new HashMap<>();
@@ -66,6 +69,21 @@ public class HydrationConfig {
 
 
 
+        SYNC_EPSILON = SERVER_BUILDER
+                .comment("Cambio mínimo de hidratación que se envía al cliente",
+                        "Los cambios menores se acumulan hasta superarlo o hasta el siguiente envío de mantenimiento")
+                .defineInRange("syncEpsilon", 0.25, 0.01, 10.0);
+
+        SYNC_KEEPALIVE_TICKS = SERVER_BUILDER
+                .comment("Cada cuántos ticks se reenvía la hidratación aunque no haya cambiado (0 = nunca)",
+                        "Solo corrige desajustes; los cambios reales se envían al momento")
+                .defineInRange("syncKeepAliveTicks", 1200, 0, 72000);
+
+        METABOLISM_BUDGET_PER_TICK = SERVER_BUILDER
+                .comment("Máximo de jugadores a los que se aplica el ciclo de hidratación y hambre en un mismo tick",
+                        "Cada jugador tiene su propio tick dentro del ciclo de 30 segundos; el exceso pasa al tick siguiente")
+                .defineInRange("metabolismBudgetPerTick", 8, 1, 1000);
+
         // Definición del campo HYDRATION_ITEMS
         HYDRATION_ITEMS = SERVER_BUILDER
                 .comment("Lista de items y sus valores de hidratación",
@@ -0,0 +1,198 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Conjunto de recetas crafteables mantenido de forma incremental sobre ids numéricos de item.
+ *
+ * Guarda el último id y cantidad observados en cada slot y el total por item. Cuando un
+ * slot cambia, el item queda marcado y {@link #evaluateDirty} reevalúa solo las recetas que
+ * lo usan. Las recetas se identifican por su posición en el conjunto recibido en
+ * {@link #setRecipes}. No usa tipos de Minecraft, así que puede alimentarse con el
+ * inventario del jugador o con uno sintético.
+ *
+ * No es thread-safe.
+ */
+public final class CraftableSet {
+    private static final int EMPTY_SLOT = -1;
+
+    // Último estado observado de cada slot (cantidad 0 = vacío)
+    private final int[] slotIds;
+    private final int[] slotCounts;
+
+    // Cantidad total por item, mantenida incrementalmente
+    private final InventorySnapshot counts = InventorySnapshot.empty();
+
+    // Ids de los items cuyo total cambió desde la última evaluación
+    private final BitSet dirtyItems = new BitSet();
+
+    // Ingredientes de cada receta, como ids y cantidades en arrays paralelos
+    private int[][] ingredientIds = new int[0][];
+    private int[][] ingredientAmounts = new int[0][];
+
+    // Índice inverso: id de item -> posición + 1 en recipesUsing (0 = ninguna receta lo usa)
+    private ItemCountMap usingIndex = new ItemCountMap();
+    private int[][] recipesUsing = new int[0][];
+
+    private final BitSet craftable = new BitSet();
+
+    /**
+     * @param slotCount Número de slots del inventario observado
+     */
+    public CraftableSet(int slotCount) {
+        slotIds = new int[slotCount];
+        slotCounts = new int[slotCount];
+        Arrays.fill(slotIds, EMPTY_SLOT);
+    }
+
+    /**
+     * Sustituye el conjunto de recetas y construye su índice inverso de ingredientes.
+     * El estado crafteable queda vacío hasta el siguiente {@link #evaluateAll}.
+     *
+     * @param ingredientIds Ids de los ingredientes de cada receta
+     * @param ingredientAmounts Cantidad de cada ingrediente por unidad, en paralelo
+     */
+    public void setRecipes(int[][] ingredientIds, int[][] ingredientAmounts) {
+        this.ingredientIds = ingredientIds;
+        this.ingredientAmounts = ingredientAmounts;
+
+        // Primera pasada: posición de cada item en el índice y número de recetas que lo usan
+        ItemCountMap positions = new ItemCountMap();
+        ItemCountMap sizes = new ItemCountMap();
+        int distinct = 0;
+        for (int[] ids : ingredientIds) {
+            for (int id : ids) {
+                if (positions.get(id) == 0) {
+                    positions.add(id, ++distinct);
+                }
+                sizes.add(id, 1);
+            }
+        }
+
+        // Segunda pasada: posiciones de receta, en orden
+        int[][] using = new int[distinct][];
+        int[] filled = new int[distinct];
+        for (int recipe = 0; recipe < ingredientIds.length; recipe++) {
+            for (int id : ingredientIds[recipe]) {
+                int position = positions.get(id) - 1;
+                if (using[position] == null) {
+                    using[position] = new int[sizes.get(id)];
+                }
+                using[position][filled[position]++] = recipe;
+            }
+        }
+
+        usingIndex = positions;
+        recipesUsing = using;
+        craftable.clear();
+    }
+
+    /**
+     * Registra el contenido actual de un slot. Si cambió, marca los items afectados.
+     *
+     * @param itemId Id del item, ignorado si {@code count} es 0 o menor
+     * @param count Cantidad en el slot
+     */
+    public void updateSlot(int slot, int itemId, int count) {
+        int id = count > 0 ? itemId : EMPTY_SLOT;
+        int amount = Math.max(count, 0);
+        if (id == slotIds[slot] && amount == slotCounts[slot]) return;
+
+        if (slotCounts[slot] > 0) {
+            adjust(slotIds[slot], -slotCounts[slot]);
+        }
+        if (amount > 0) {
+            adjust(id, amount);
+        }
+        slotIds[slot] = id;
+        slotCounts[slot] = amount;
+    }
+
+    private void adjust(int itemId, int delta) {
+        counts.adjust(itemId, delta);
+        dirtyItems.set(itemId);
+    }
+
+    /**
+     * Indica si algún total cambió desde la última evaluación.
+     */
+    public boolean hasChanges() {
+        return !dirtyItems.isEmpty();
+    }
+
+    /**
+     * Evalúa todas las recetas. Cuesta O(recetas); se usa al cambiar de recetas o de jugador.
+     */
+    public void evaluateAll() {
+        craftable.clear();
+        for (int recipe = 0; recipe < ingredientIds.length; recipe++) {
+            if (counts.canCraft(ingredientIds[recipe], ingredientAmounts[recipe])) {
+                craftable.set(recipe);
+            }
+        }
+        dirtyItems.clear();
+    }
+
+    /**
+     * Reevalúa solo las recetas que usan algún item marcado.
+     *
+     * @return true si cambió el conjunto crafteable
+     */
+    public boolean evaluateDirty() {
+        boolean changed = false;
+        for (int id = dirtyItems.nextSetBit(0); id >= 0; id = dirtyItems.nextSetBit(id + 1)) {
+            int position = usingIndex.get(id);
+            if (position == 0) continue;
+
+            for (int recipe : recipesUsing[position - 1]) {
+                boolean now = counts.canCraft(ingredientIds[recipe], ingredientAmounts[recipe]);
+                if (now != craftable.get(recipe)) {
+                    craftable.set(recipe, now);
+                    changed = true;
+                }
+            }
+        }
+        dirtyItems.clear();
+        return changed;
+    }
+
+    /**
+     * Indica si la receta en la posición indicada era crafteable en la última evaluación.
+     */
+    public boolean isCraftable(int recipe) {
+        return craftable.get(recipe);
+    }
+
+    /**
+     * Siguiente receta crafteable a partir de {@code from}, o -1 si no hay más.
+     */
+    public int nextCraftable(int from) {
+        return craftable.nextSetBit(from);
+    }
+
+    /**
+     * Número de recetas crafteables.
+     */
+    public int craftableCount() {
+        return craftable.cardinality();
+    }
+
+    /**
+     * Totales por item del inventario observado. No debe modificarse desde fuera.
+     */
+    public InventorySnapshot getCounts() {
+        return counts;
+    }
+
+    /**
+     * Olvida el inventario observado y el estado crafteable; conserva las recetas.
+     */
+    public void reset() {
+        Arrays.fill(slotIds, EMPTY_SLOT);
+        Arrays.fill(slotCounts, 0);
+        counts.clear();
+        dirtyItems.clear();
+        craftable.clear();
+    }
+}
@@ -1,12 +1,17 @@
 package com.bitzlay.ebzinventory.crafting;
 
+import com.bitzlay.ebzinventory.config.CraftingConfig;
 import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.network.chat.Component;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -14,22 +19,40 @@ import java.util.UUID;
  * Asegura que los materiales solo se consuman si hay espacio en la cola.
  */
 public class CraftingHelper {
+    /** Cantidad especial para {@link #startCrafting(ServerPlayer, InventoryRecipe, int)}: todo lo que permita el inventario */
+    public static final int CRAFT_MAX = 0;
 
     /**
      * Inicia el crafteo de una receta verificando primero si hay espacio en la cola.
-     * Solo consume materiales si hay espacio disponible.
+     * Solo consume materiales si hay espacio disponible. Se ejecuta en el servidor;
+     * el cliente lo solicita con un paquete.
      *
      * @param player Jugador que realiza el crafteo
      * @param recipe Receta a craftear
      * @return true si el crafteo se inició correctamente, false si no
      */
-    public static boolean startCrafting(Player player, InventoryRecipe recipe) {
+    public static boolean startCrafting(ServerPlayer player, InventoryRecipe recipe) {
+        return startCrafting(player, recipe, 1);
+    }
+
+    /**
+     * Inicia un lote de {@code count} unidades como una sola entrada de la cola. Los
+     * materiales de todo el lote se retiran en una única operación.
+     *
+     * @param player Jugador que realiza el crafteo
+     * @param recipe Receta a craftear
+     * @param count  Unidades a craftear, o {@link #CRAFT_MAX} para todas las que permita el inventario
+     * @return true si el crafteo se inició correctamente, false si no
+     */
+    public static boolean startCrafting(ServerPlayer player, InventoryRecipe recipe, int count) {
         if (player == null || recipe == null) return false;
 
         UUID playerId = player.getUUID();
+        CraftingMetrics.recordRequest();
 
         // 1. Verificar si hay espacio en la cola
         if (!CraftingQueueHandler.canAddToQueue(playerId)) {
+            CraftingMetrics.recordRejectedFull();
             player.displayClientMessage(
                     Component.literal("§cLa cola de crafteo está llena"),
                     false
@@ -37,8 +60,19 @@ public class CraftingHelper {
             return false;
         }
 
-        // 2. Verificar si hay suficientes materiales
-        if (!canCraft(player, recipe)) {
+        // 2. Calcular el tamaño del lote; "máximo" recorre el inventario una sola vez
+        int maxBatch = CraftingConfig.MAX_BATCH_SIZE.get();
+        int crafts = count == CRAFT_MAX ? maxCraftable(player, recipe) : count;
+        crafts = Math.min(crafts, maxBatch);
+
+        // 3. Planificar y consumir materiales en una sola operación (todo o nada)
+        MaterialReceipt receipt = crafts > 0 ? consumeMaterials(player, recipe, crafts) : null;
+        if (receipt == null) {
+            // Faltan materiales: quizá puedan fabricarse los ingredientes intermedios
+            if (CraftingConfig.PLAN_SUBCOMPONENTS.get()) {
+                return startChain(player, recipe, Math.max(1, crafts));
+            }
+            CraftingMetrics.recordRejectedMaterials();
             player.displayClientMessage(
                     Component.literal("§cNo tienes suficientes materiales"),
                     false
@@ -46,10 +80,7 @@ public class CraftingHelper {
             return false;
         }
 
-        // 3. Consumir materiales (solo si hay espacio en la cola)
-        consumeMaterials(player, recipe);
-
-        // 4. Crear y añadir a la cola
+        // 4. Crear y añadir a la cola, conservando el recibo para reembolsos exactos
         ItemStack resultCopy = recipe.getResult().copy();
 
         CraftingQueueItem queueItem = new CraftingQueueItem(
@@ -57,83 +88,164 @@ public class CraftingHelper {
                 playerId,
                 resultCopy,
                 recipe.getCraftingTime(),
-                recipe
+                crafts,
+                CraftingConfig.BATCH_STRIDE.get(),
+                recipe,
+                receipt
         );
 
         // 5. Añadir a la cola (esto no debería fallar ya que verificamos antes)
-        boolean added = CraftingQueueHandler.addToQueue(queueItem);
+        boolean added = CraftingQueueHandler.addToQueue(player, queueItem);
 
-        // 6. Si por alguna razón falla (lo cual no debería ocurrir), devolver materiales
+        // 6. Si por alguna razón falla (lo cual no debería ocurrir), devolver lo retirado
         if (!added) {
-            // Esto es solo una medida de seguridad adicional
-            returnMaterials(player, recipe);
+            receipt.refund(player);
+            CraftingMetrics.recordRejectedFull();
             return false;
         }
+        CraftingMetrics.recordQueued(1);
 
         // 7. Feedback de sonido
-        player.playSound(
-                net.minecraft.sounds.SoundEvents.UI_STONECUTTER_TAKE_RESULT,
-                1.0F, 1.0F
-        );
+        player.playNotifySound(SoundEvents.UI_STONECUTTER_TAKE_RESULT, SoundSource.PLAYERS, 1.0F, 1.0F);
 
         return true;
     }
 
     /**
-     * Verifica si una receta puede ser crafteada con los materiales disponibles.
+     * Encola una receta junto con los subcomponentes que falten, fabricados con las recetas
+     * que los producen ({@link CraftingPlanner}). Todos los pasos se pagan a la vez y se
+     * añaden juntos; si algo falla no se retira ni se encola nada.
      *
      * @param player Jugador que realiza el crafteo
-     * @param recipe Receta a verificar
-     * @return true si hay suficientes materiales
+     * @param recipe Receta pedida
+     * @param crafts Unidades de la receta pedida
+     * @return true si la cadena se encoló, false si no
      */
-    public static boolean canCraft(Player player, InventoryRecipe recipe) {
-        if (player == null || recipe == null) return false;
+    public static boolean startChain(ServerPlayer player, InventoryRecipe recipe, int crafts) {
+        if (player == null || recipe == null || crafts <= 0) return false;
+
+        CraftingPlanner.Plan plan = CraftingPlanner.plan(InventoryRecipeManager.getSnapshot().getGraph(),
+                InventorySnapshot.of(player), recipe, crafts,
+                CraftingConfig.PLAN_MAX_DEPTH.get(), CraftingConfig.MAX_BATCH_SIZE.get());
+        if (!plan.isFeasible()) {
+            CraftingMetrics.recordRejectedMaterials();
+            String missing = plan.getMissingItem() != null
+                    ? ": " + plan.getMissingAmount() + "x " + new ItemStack(plan.getMissingItem()).getHoverName().getString()
+                    : "";
+            player.displayClientMessage(
+                    Component.literal("§cNo tienes suficientes materiales" + missing),
+                    false
+            );
+            return false;
+        }
+
+        List<CraftingPlanner.Step> steps = plan.getSteps();
+        if (!CraftingQueueHandler.canAddToQueue(player.getUUID(), steps.size())) {
+            CraftingMetrics.recordRejectedFull();
+            player.displayClientMessage(
+                    Component.literal("§cNo hay sitio en la cola para los " + steps.size() + " pasos"),
+                    false
+            );
+            return false;
+        }
 
-        for (Map.Entry<Item, Integer> ingredient : recipe.getIngredients().entrySet()) {
-            if (player.getInventory().countItem(ingredient.getKey()) < ingredient.getValue()) {
+        // Cada paso retira solo lo que no le llega de pasos anteriores; si uno falla se devuelve todo
+        List<MaterialReceipt> receipts = new ArrayList<>(steps.size());
+        MaterialPlan materials = MaterialPlan.scratch();
+        for (CraftingPlanner.Step step : steps) {
+            MaterialReceipt receipt = materials.compute(player.getInventory(), InventorySnapshot.CRAFTING_SLOTS,
+                    step.getRecipe(), step.getCrafts(), step.getFromInventory())
+                    ? materials.apply(player.getInventory())
+                    : null;
+            if (receipt == null) {
+                for (MaterialReceipt paid : receipts) {
+                    paid.refund(player);
+                }
+                CraftingMetrics.recordRejectedMaterials();
+                player.displayClientMessage(
+                        Component.literal("§cNo tienes suficientes materiales"),
+                        false
+                );
                 return false;
             }
+            receipts.add(receipt);
+        }
+
+        int stride = CraftingConfig.BATCH_STRIDE.get();
+        List<CraftingQueueItem> chain = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            CraftingPlanner.Step step = steps.get(i);
+            InventoryRecipe stepRecipe = step.getRecipe();
+            chain.add(new CraftingQueueItem(stepRecipe.getId(), player.getUUID(), stepRecipe.getResult().copy(),
+                    stepRecipe.getCraftingTime(), step.getCrafts(), stride, stepRecipe, receipts.get(i)));
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            CraftingPlanner.Step step = steps.get(i);
+            for (int f = 0; f < step.getFeedCount(); f++) {
+                chain.get(i).feed(chain.get(step.getFeedTarget(f)), step.getFeedAmount(f));
+            }
+        }
+
+        if (!CraftingQueueHandler.addChainToQueue(player, chain)) {
+            for (MaterialReceipt paid : receipts) {
+                paid.refund(player);
+            }
+            CraftingMetrics.recordRejectedFull();
+            return false;
         }
+        CraftingMetrics.recordQueued(chain.size());
+
+        if (steps.size() > 1) {
+            player.displayClientMessage(
+                    Component.literal("§aEncolados " + (steps.size() - 1) + " subcomponentes para " + recipe.getDisplayName()),
+                    false
+            );
+        }
+        player.playNotifySound(SoundEvents.UI_STONECUTTER_TAKE_RESULT, SoundSource.PLAYERS, 1.0F, 1.0F);
         return true;
     }
 
     /**
-     * Consume los materiales necesarios para una receta.
+     * Verifica si una receta puede ser crafteada con los materiales disponibles.
      *
      * @param player Jugador que realiza el crafteo
-     * @param recipe Receta cuyos materiales serán consumidos
+     * @param recipe Receta a verificar
+     * @return true si hay suficientes materiales
      */
-    private static void consumeMaterials(Player player, InventoryRecipe recipe) {
-        if (player == null || recipe == null) return;
-
-        for (Map.Entry<Item, Integer> ingredient : recipe.getIngredients().entrySet()) {
-            int remaining = ingredient.getValue();
-            while (remaining > 0) {
-                int slot = player.getInventory().findSlotMatchingItem(new ItemStack(ingredient.getKey()));
-                if (slot == -1) break;
-
-                ItemStack stack = player.getInventory().getItem(slot);
-                int toRemove = Math.min(remaining, stack.getCount());
-                stack.shrink(toRemove);
-                remaining -= toRemove;
-            }
-        }
+    public static boolean canCraft(Player player, InventoryRecipe recipe) {
+        if (player == null || recipe == null) return false;
+        return InventorySnapshot.of(player).canCraft(recipe);
+    }
+
+    /**
+     * Calcula cuántas veces puede craftearse una receta, recorriendo el inventario una sola vez.
+     * Para evaluar varias recetas seguidas conviene crear una {@link InventorySnapshot} y reutilizarla.
+     *
+     * @param player Jugador que realiza el crafteo
+     * @param recipe Receta a verificar
+     * @return Número máximo de crafteos posibles
+     */
+    public static int maxCraftable(Player player, InventoryRecipe recipe) {
+        if (player == null || recipe == null) return 0;
+        return InventorySnapshot.of(player).maxCraftable(recipe);
     }
 
     /**
-     * Devuelve los materiales al inventario del jugador.
+     * Retira del inventario los materiales de {@code crafts} unidades de la receta.
+     * Si falta cualquier material no se retira nada.
      *
-     * @param player Jugador que recibirá los materiales
-     * @param recipe Receta cuyos materiales serán devueltos
+     * @param player Jugador que realiza el crafteo
+     * @param recipe Receta cuyos materiales serán consumidos
+     * @param crafts Número de unidades a pagar
+     * @return Recibo con lo retirado, o null si no hay materiales suficientes
      */
-    private static void returnMaterials(Player player, InventoryRecipe recipe) {
-        if (player == null || recipe == null) return;
+    public static MaterialReceipt consumeMaterials(Player player, InventoryRecipe recipe, int crafts) {
+        if (player == null || recipe == null || crafts <= 0) return null;
 
-        for (Map.Entry<Item, Integer> ingredient : recipe.getIngredients().entrySet()) {
-            ItemStack returnStack = new ItemStack(ingredient.getKey(), ingredient.getValue());
-            if (!player.getInventory().add(returnStack)) {
-                player.drop(returnStack, false);
-            }
+        MaterialPlan plan = MaterialPlan.scratch();
+        if (!plan.compute(player.getInventory(), InventorySnapshot.CRAFTING_SLOTS, recipe, crafts)) {
+            return null;
         }
+        return plan.apply(player.getInventory());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.config.CraftingConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.server.permission.PermissionAPI;
+import net.minecraftforge.server.permission.events.PermissionGatherEvent;
+import net.minecraftforge.server.permission.nodes.PermissionNode;
+import net.minecraftforge.server.permission.nodes.PermissionTypes;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Número de líneas de crafteo simultáneas de un jugador.
+ *
+ * Parte de {@code baseLanes} de la configuración, suma {@code workbenchLanes} si hay una
+ * mesa de crafteo cerca y suma el valor del permiso {@code ebzinventory.crafting.extra_lanes}.
+ * Se calcula solo cuando cambia la cola, no en cada tick.
+ *
+ * La búsqueda de la mesa se guarda por jugador. Si había mesa, basta con comprobar ese
+ * bloque; si no la había, el resultado vale mientras el jugador siga en el mismo bloque y
+ * durante {@link #NO_WORKBENCH_RECHECK_TICKS}, para notar mesas recién colocadas.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public class CraftingLanes {
+    public static final PermissionNode<Integer> EXTRA_LANES = new PermissionNode<>(
+            EbzInventory.MOD_ID, "crafting.extra_lanes", PermissionTypes.INTEGER,
+            (player, playerId, context) -> 0);
+
+    /** Ticks que vale un "no hay mesa cerca" mientras el jugador no cambie de bloque */
+    private static final long NO_WORKBENCH_RECHECK_TICKS = 40;
+
+    private static final Map<UUID, WorkbenchCheck> workbenchChecks = new HashMap<>();
+
+    /**
+     * Última búsqueda de mesa de un jugador.
+     */
+    private static final class WorkbenchCheck {
+        Level level;
+        BlockPos center;
+        int radius;
+        long checkedAt;
+        // Mesa encontrada, o null si no había ninguna
+        BlockPos workbench;
+    }
+
+    @SubscribeEvent
+    public static void onGatherPermissions(PermissionGatherEvent.Nodes event) {
+        event.addNodes(EXTRA_LANES);
+    }
+
+    /**
+     * Líneas disponibles para el jugador en este momento (entre 1 y el tamaño de la cola).
+     */
+    public static int laneCount(ServerPlayer player) {
+        int lanes = CraftingConfig.BASE_LANES.get();
+
+        int workbenchLanes = CraftingConfig.WORKBENCH_LANES.get();
+        if (workbenchLanes > 0 && isNearWorkbench(player, CraftingConfig.WORKBENCH_RADIUS.get())) {
+            lanes += workbenchLanes;
+        }
+
+        lanes += Math.max(0, PermissionAPI.getPermission(player, EXTRA_LANES));
+        return Math.max(1, Math.min(CraftingQueueHandler.MAX_QUEUE_SIZE, lanes));
+    }
+
+    private static boolean isNearWorkbench(ServerPlayer player, int radius) {
+        Level level = player.level();
+        BlockPos center = player.blockPosition();
+        long now = level.getGameTime();
+
+        WorkbenchCheck check = workbenchChecks.get(player.getUUID());
+        if (check != null && check.level == level && check.radius == radius) {
+            if (check.workbench != null) {
+                // La mesa de la última búsqueda sigue sirviendo si está al alcance y en pie
+                if (withinRadius(center, check.workbench, radius)
+                        && level.getBlockState(check.workbench).is(Blocks.CRAFTING_TABLE)) {
+                    return true;
+                }
+            } else if (check.center.equals(center) && now - check.checkedAt < NO_WORKBENCH_RECHECK_TICKS) {
+                return false;
+            }
+        }
+
+        if (check == null) {
+            check = new WorkbenchCheck();
+            workbenchChecks.put(player.getUUID(), check);
+        }
+        check.level = level;
+        check.center = center;
+        check.radius = radius;
+        check.checkedAt = now;
+        check.workbench = findWorkbench(level, center, radius);
+        return check.workbench != null;
+    }
+
+    private static BlockPos findWorkbench(Level level, BlockPos center, int radius) {
+        for (BlockPos pos : BlockPos.betweenClosed(center.offset(-radius, -radius, -radius),
+                center.offset(radius, radius, radius))) {
+            if (level.getBlockState(pos).is(Blocks.CRAFTING_TABLE)) {
+                return pos.immutable();
+            }
+        }
+        return null;
+    }
+
+    private static boolean withinRadius(BlockPos center, BlockPos pos, int radius) {
+        return Math.abs(pos.getX() - center.getX()) <= radius
+                && Math.abs(pos.getY() - center.getY()) <= radius
+                && Math.abs(pos.getZ() - center.getZ()) <= radius;
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        workbenchChecks.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        workbenchChecks.clear();
+    }
+}
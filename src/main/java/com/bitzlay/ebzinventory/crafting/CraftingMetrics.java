@@ -0,0 +1,256 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.config.CraftingConfig;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del sistema de crafteo: peticiones, rechazos, reembolsos, unidades por receta y
+ * tiempos de espera y de finalización en ticks.
+ *
+ * Todos los contadores son {@link LongAdder} (contadores repartidos en celdas, sin bloqueos)
+ * y los histogramas usan cubetas de potencias de dos, así que registrar un evento es una
+ * suma sin contención. Leerlos suma las celdas; solo lo hacen el comando
+ * {@code /ebzinventory stats crafting} y el resumen periódico del log.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public final class CraftingMetrics {
+    private static final double TICKS_PER_SECOND = 20.0;
+
+    /** Recetas que se listan en el resumen */
+    private static final int TOP_RECIPES = 5;
+
+    /**
+     * Histograma de duraciones en ticks con cubetas de potencias de dos: la cubeta {@code i}
+     * cuenta los valores de {@code [2^(i-1), 2^i)}, y la 0 los valores 0.
+     */
+    public static final class TickHistogram {
+        private static final int BUCKETS = 32;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        TickHistogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long ticks) {
+            long value = Math.max(0, ticks);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+            buckets[bucket].increment();
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0.0 : (double) sum.sum() / n;
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Cota superior del percentil indicado (entre 0 y 1): el límite de la cubeta que lo contiene.
+         */
+        public long getPercentile(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+
+            long target = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return i == 0 ? 0 : Math.min(getMax(), (1L << i) - 1);
+                }
+            }
+            return getMax();
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+
+    private static final LongAdder requests = new LongAdder();
+    private static final LongAdder queuedEntries = new LongAdder();
+    private static final LongAdder queuedChains = new LongAdder();
+    private static final LongAdder rejectedFull = new LongAdder();
+    private static final LongAdder rejectedMaterials = new LongAdder();
+    private static final LongAdder completedEntries = new LongAdder();
+    private static final LongAdder canceledEntries = new LongAdder();
+    private static final LongAdder refunds = new LongAdder();
+    private static final Map<String, LongAdder> craftsByRecipe = new ConcurrentHashMap<>();
+
+    private static final TickHistogram queueWait = new TickHistogram();
+    private static final TickHistogram completionTime = new TickHistogram();
+
+    // Peticiones vistas en el último resumen periódico; sin actividad no se escribe nada
+    private static long lastLoggedRequests = -1;
+
+    private CraftingMetrics() {
+    }
+
+    static void recordRequest() {
+        requests.increment();
+    }
+
+    static void recordQueued(int entries) {
+        queuedEntries.add(entries);
+        if (entries > 1) {
+            queuedChains.increment();
+        }
+    }
+
+    static void recordRejectedFull() {
+        rejectedFull.increment();
+    }
+
+    static void recordRejectedMaterials() {
+        rejectedMaterials.increment();
+    }
+
+    static void recordCrafted(String recipeId, int crafts) {
+        craftsByRecipe.computeIfAbsent(recipeId, id -> new LongAdder()).add(crafts);
+    }
+
+    /**
+     * Ticks que pasó una entrada en la cola antes de empezar por primera vez.
+     */
+    static void recordQueueWait(long ticks) {
+        queueWait.record(ticks);
+    }
+
+    /**
+     * Ticks desde que se encoló una entrada hasta que entregó su última unidad.
+     */
+    static void recordCompleted(long ticks) {
+        completedEntries.increment();
+        completionTime.record(ticks);
+    }
+
+    static void recordCanceled(int entries) {
+        canceledEntries.add(entries);
+    }
+
+    static void recordRefund() {
+        refunds.increment();
+    }
+
+    public static TickHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public static TickHistogram getCompletionTime() {
+        return completionTime;
+    }
+
+    /**
+     * Pone todas las métricas a cero.
+     */
+    public static void reset() {
+        requests.reset();
+        queuedEntries.reset();
+        queuedChains.reset();
+        rejectedFull.reset();
+        rejectedMaterials.reset();
+        completedEntries.reset();
+        canceledEntries.reset();
+        refunds.reset();
+        craftsByRecipe.clear();
+        queueWait.reset();
+        completionTime.reset();
+        lastLoggedRequests = -1;
+    }
+
+    /**
+     * Resumen legible de las métricas, una línea por apartado.
+     */
+    public static List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Peticiones: %d | encoladas: %d entradas (%d cadenas)",
+                requests.sum(), queuedEntries.sum(), queuedChains.sum()));
+        lines.add(String.format(Locale.ROOT, "Rechazos: cola llena %d | sin materiales %d",
+                rejectedFull.sum(), rejectedMaterials.sum()));
+        lines.add(String.format(Locale.ROOT, "Completadas: %d | canceladas: %d | reembolsos: %d",
+                completedEntries.sum(), canceledEntries.sum(), refunds.sum()));
+        lines.add("Espera en cola: " + describe(queueWait));
+        lines.add("Tiempo hasta completar: " + describe(completionTime));
+
+        List<Map.Entry<String, Long>> top = new ArrayList<>(craftsByRecipe.size());
+        for (Map.Entry<String, LongAdder> entry : craftsByRecipe.entrySet()) {
+            top.add(Map.entry(entry.getKey(), entry.getValue().sum()));
+        }
+        top.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        StringBuilder recipes = new StringBuilder("Unidades por receta:");
+        if (top.isEmpty()) {
+            recipes.append(" ninguna");
+        }
+        for (int i = 0; i < Math.min(TOP_RECIPES, top.size()); i++) {
+            recipes.append(i == 0 ? " " : ", ").append(top.get(i).getKey()).append('=').append(top.get(i).getValue());
+        }
+        if (top.size() > TOP_RECIPES) {
+            recipes.append(" (+").append(top.size() - TOP_RECIPES).append(" más)");
+        }
+        lines.add(recipes.toString());
+        return lines;
+    }
+
+    private static String describe(TickHistogram histogram) {
+        if (histogram.getCount() == 0) return "sin datos";
+        return String.format(Locale.ROOT, "n=%d, media %.1fs, p50 ≤%.1fs, p95 ≤%.1fs, máx %.1fs",
+                histogram.getCount(),
+                histogram.getMean() / TICKS_PER_SECOND,
+                histogram.getPercentile(0.50) / TICKS_PER_SECOND,
+                histogram.getPercentile(0.95) / TICKS_PER_SECOND,
+                histogram.getMax() / TICKS_PER_SECOND);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+
+        int minutes = CraftingConfig.STATS_LOG_INTERVAL.get();
+        if (minutes <= 0 || event.getServer().getTickCount() % (minutes * 1200L) != 0) return;
+
+        long seen = requests.sum();
+        if (seen == lastLoggedRequests) return;
+        lastLoggedRequests = seen;
+
+        EbzInventory.LOGGER.info("⚙️ Métricas de crafteo:");
+        for (String line : summary()) {
+            EbzInventory.LOGGER.info("   -> {}", line);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.RecipeGraph;
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planificador de subcomponentes: si faltan ingredientes intermedios, los fabrica con las
+ * recetas que los producen y devuelve la cadena completa de pasos.
+ *
+ * Trabaja sobre el {@link RecipeGraph} precalculado de la instantánea de recetas. La demanda
+ * se propaga de arriba abajo por altura: un item siempre está por encima de sus
+ * ingredientes, así que al atenderlo ya se conoce toda su demanda y cada item se resuelve
+ * una sola vez. El coste depende de los items que toca el plan, no del número de recetas.
+ *
+ * No modifica nada: el plan se paga y se encola con {@link CraftingHelper}.
+ */
+public final class CraftingPlanner {
+    /** Profundidad por defecto: niveles de subcomponentes bajo la receta pedida */
+    public static final int DEFAULT_MAX_DEPTH = 4;
+
+    private CraftingPlanner() {
+    }
+
+    /**
+     * Paso de la cadena: una receta, cuántas unidades y de dónde sale cada ingrediente.
+     */
+    public static final class Step {
+        private final InventoryRecipe recipe;
+        private final int crafts;
+        // Cantidad de cada ingrediente (por índice de la receta) que se retira del inventario
+        private final int[] fromInventory;
+        // Pasos posteriores que reciben parte del resultado, con su cantidad en items
+        private final List<Step> feedTargets = new ArrayList<>(1);
+        private final List<Integer> feedAmounts = new ArrayList<>(1);
+        private int index;
+
+        private Step(InventoryRecipe recipe, int crafts) {
+            this.recipe = recipe;
+            this.crafts = crafts;
+            this.fromInventory = new int[recipe.getIngredientCount()];
+        }
+
+        public InventoryRecipe getRecipe() {
+            return recipe;
+        }
+
+        public int getCrafts() {
+            return crafts;
+        }
+
+        /**
+         * Cantidades a retirar del inventario por ingrediente; el resto llega de otros pasos.
+         */
+        public int[] getFromInventory() {
+            return fromInventory;
+        }
+
+        /**
+         * Número de pasos posteriores que consumen parte del resultado.
+         */
+        public int getFeedCount() {
+            return feedTargets.size();
+        }
+
+        /**
+         * Posición en {@link Plan#getSteps()} del paso que recibe la entrega {@code feed}.
+         */
+        public int getFeedTarget(int feed) {
+            return feedTargets.get(feed).index;
+        }
+
+        /**
+         * Items del resultado reservados para la entrega {@code feed}.
+         */
+        public int getFeedAmount(int feed) {
+            return feedAmounts.get(feed);
+        }
+    }
+
+    /**
+     * Resultado de la planificación.
+     */
+    public static final class Plan {
+        private final List<Step> steps;
+        private final Item missingItem;
+        private final int missingAmount;
+
+        private Plan(List<Step> steps, Item missingItem, int missingAmount) {
+            this.steps = steps;
+            this.missingItem = missingItem;
+            this.missingAmount = missingAmount;
+        }
+
+        public boolean isFeasible() {
+            return missingItem == null && !steps.isEmpty();
+        }
+
+        /**
+         * Pasos en orden de dependencia: cada paso va detrás de los que le fabrican
+         * ingredientes, y la receta pedida es el último.
+         */
+        public List<Step> getSteps() {
+            return steps;
+        }
+
+        /**
+         * Primer material que no pudo conseguirse, o null si el plan es viable.
+         */
+        public Item getMissingItem() {
+            return missingItem;
+        }
+
+        public int getMissingAmount() {
+            return missingAmount;
+        }
+    }
+
+    /**
+     * Demanda acumulada de un item: quién lo consume y desde qué profundidad.
+     */
+    private static final class Demand {
+        final Item item;
+        final RecipeGraph.Node node;
+        final List<Step> consumers = new ArrayList<>(2);
+        final List<Integer> ingredients = new ArrayList<>(2);
+        final List<Long> amounts = new ArrayList<>(2);
+        long total;
+        int depth;
+
+        Demand(Item item, RecipeGraph.Node node, int depth) {
+            this.item = item;
+            this.node = node;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Planifica {@code crafts} unidades de la receta expandiendo los ingredientes que falten.
+     *
+     * @param graph     Grafo de la instantánea a la que pertenece la receta
+     * @param inventory Materiales disponibles
+     * @param recipe    Receta pedida
+     * @param crafts    Unidades de la receta pedida
+     * @param maxDepth  Niveles de subcomponentes que pueden expandirse bajo la receta
+     * @param maxCrafts Máximo de unidades por paso
+     * @return Plan con los pasos, o con el primer material que falta
+     */
+    public static Plan plan(RecipeGraph graph, InventorySnapshot inventory, InventoryRecipe recipe,
+                            int crafts, int maxDepth, int maxCrafts) {
+        if (recipe == null || crafts <= 0) {
+            return new Plan(Collections.emptyList(), null, 0);
+        }
+
+        Map<Item, Demand> demands = new IdentityHashMap<>();
+        List<List<Demand>> buckets = new ArrayList<>(graph.getMaxHeight() + 1);
+        for (int h = 0; h <= graph.getMaxHeight(); h++) {
+            buckets.add(null);
+        }
+
+        List<Step> created = new ArrayList<>();
+        Step root = new Step(recipe, crafts);
+        created.add(root);
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            addDemand(graph, demands, buckets, recipe.getIngredientItem(i), root, i,
+                    (long) recipe.getIngredientAmount(i) * crafts, 1);
+        }
+
+        // De arriba abajo: cuando se atiende un item ya no puede aparecer más demanda suya
+        for (int height = buckets.size() - 1; height >= 0; height--) {
+            List<Demand> bucket = buckets.get(height);
+            if (bucket == null) continue;
+
+            for (int d = 0; d < bucket.size(); d++) {
+                Demand demand = bucket.get(d);
+                long available = inventory.count(demand.item);
+                long shortfall = demand.total - available;
+
+                Step producer = null;
+                if (shortfall > 0) {
+                    RecipeGraph.Node node = demand.node;
+                    if (node == null || !node.isCraftable() || demand.depth > maxDepth) {
+                        return missing(demand.item, shortfall);
+                    }
+                    InventoryRecipe sub = node.getProducer();
+                    long perCraft = sub.getResult().getCount();
+                    long subCrafts = (shortfall + perCraft - 1) / perCraft;
+                    if (subCrafts > maxCrafts) {
+                        return missing(demand.item, shortfall);
+                    }
+                    producer = new Step(sub, (int) subCrafts);
+                    created.add(producer);
+                    for (int i = 0; i < node.getInputCount(); i++) {
+                        addDemand(graph, demands, buckets, node.getInput(i).getItem(), producer, i,
+                                (long) node.getInputAmount(i) * subCrafts, demand.depth + 1);
+                    }
+                }
+
+                // El inventario cubre a los primeros consumidores; el resto lo fabrica el paso nuevo
+                long fromInventory = Math.min(available, demand.total);
+                for (int c = 0; c < demand.consumers.size(); c++) {
+                    Step consumer = demand.consumers.get(c);
+                    long amount = demand.amounts.get(c);
+                    long taken = Math.min(amount, fromInventory);
+                    fromInventory -= taken;
+                    consumer.fromInventory[demand.ingredients.get(c)] += (int) taken;
+                    if (amount > taken) {
+                        producer.feedTargets.add(consumer);
+                        producer.feedAmounts.add((int) (amount - taken));
+                    }
+                }
+            }
+        }
+
+        // Se crearon de consumidor a productor; el orden de cola es el inverso
+        List<Step> steps = new ArrayList<>(created.size());
+        for (int i = created.size() - 1; i >= 0; i--) {
+            Step step = created.get(i);
+            step.index = steps.size();
+            steps.add(step);
+        }
+        return new Plan(Collections.unmodifiableList(steps), null, 0);
+    }
+
+    private static void addDemand(RecipeGraph graph, Map<Item, Demand> demands, List<List<Demand>> buckets,
+                                  Item item, Step consumer, int ingredient, long amount, int depth) {
+        if (amount <= 0) return;
+
+        Demand demand = demands.get(item);
+        if (demand == null) {
+            RecipeGraph.Node node = graph.getNode(item);
+            demand = new Demand(item, node, depth);
+            demands.put(item, demand);
+            int height = node != null ? node.getHeight() : 0;
+            List<Demand> bucket = buckets.get(height);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                buckets.set(height, bucket);
+            }
+            bucket.add(demand);
+        }
+        demand.depth = Math.min(demand.depth, depth);
+        demand.total += amount;
+        demand.consumers.add(consumer);
+        demand.ingredients.add(ingredient);
+        demand.amounts.add(amount);
+    }
+
+    private static Plan missing(Item item, long amount) {
+        return new Plan(Collections.emptyList(), item, (int) Math.min(Integer.MAX_VALUE, amount));
+    }
+}
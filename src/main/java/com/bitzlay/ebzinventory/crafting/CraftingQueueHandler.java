@@ -1,13 +1,14 @@
 package com.bitzlay.ebzinventory.crafting;
 
-import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.Item;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.network.chat.Component;
-import net.minecraft.client.Minecraft;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import com.bitzlay.ebzinventory.EbzInventory;
@@ -15,10 +16,38 @@ import net.minecraftforge.server.ServerLifecycleHooks;
 
 import java.util.*;
 
+/**
+ * Motor de colas de crafteo del servidor.
+ *
+ * El tiempo se cuenta en ticks de servidor, así que la duración de un crafteo no depende
+ * del lag ni de las pausas del cliente. Las primeras entradas de cada cola avanzan a la
+ * vez, una por línea ({@link CraftingLanes}), y cada una tiene un temporizador en una
+ * {@link TimingWheel} compartida por todos los jugadores: cada tick
+ * solo se atienden las entradas que vencen, sin recorrer las colas. Los clientes reciben
+ * la cola completa al conectarse y después solo los cambios ({@link QueueSyncTracker}).
+ *
+ * Las colas se guardan en el mundo con {@link CraftingQueueStore}: al desconectarse el
+ * jugador su cola sale de memoria y se vuelve a cargar cuando se conecta.
+ *
+ * Todo cambio en las colas ocurre en el hilo del servidor; las llamadas desde otro hilo se
+ * reenvían a él. Las lecturas desde cualquier hilo usan copias inmutables ({@link PlayerQueues}).
+ */
 @Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
 public class CraftingQueueHandler {
-    private static final Map<UUID, List<CraftingQueueItem>> playerQueues = new HashMap<>();
-    private static final int MAX_QUEUE_SIZE = 11;
+    public static final int MAX_QUEUE_SIZE = 11;
+
+    // Solo colas no vacías de jugadores conectados; se modifican solo en el hilo del servidor
+    private static final PlayerQueues playerQueues = new PlayerQueues();
+
+    // Finalización de la entrada en marcha de cada cola
+    private static final TimingWheel<CraftingQueueItem> completions = new TimingWheel<>();
+
+    // Último estado enviado a cada cliente
+    private static final QueueSyncTracker syncTracker = new QueueSyncTracker();
+
+    // Servidor y tick en curso mientras avanza la rueda
+    private static MinecraftServer tickingServer;
+    private static long tickingTick;
 
     /**
      * Verifica si se puede añadir un item a la cola de crafteo antes de consumir materiales.
@@ -26,138 +55,409 @@ public class CraftingQueueHandler {
      * @return true si hay espacio en la cola, false si no
      */
     public static boolean canAddToQueue(UUID playerId) {
-        List<CraftingQueueItem> queue = playerQueues.getOrDefault(playerId, new ArrayList<>());
-        return queue.size() < MAX_QUEUE_SIZE;
+        return canAddToQueue(playerId, 1);
+    }
+
+    /**
+     * Verifica si caben {@code count} entradas más en la cola (por ejemplo, una cadena de
+     * subcomponentes completa).
+     */
+    public static boolean canAddToQueue(UUID playerId, int count) {
+        return playerQueues.snapshot(playerId).size() + count <= MAX_QUEUE_SIZE;
     }
 
     /**
-     * Añade un item a la cola de crafteo.
+     * Añade un item a la cola de crafteo. Si hay una línea libre, empieza en este tick.
+     * Solo hilo del servidor.
+     * @param player Jugador dueño de la cola
      * @param item El item de crafteo a añadir
-     * @return true si se agregó correctamente, false si no (cola llena)
+     * @return true si se agregó correctamente, false si no (cola llena o hilo incorrecto)
      */
-    public static boolean addToQueue(CraftingQueueItem item) {
-        List<CraftingQueueItem> queue = playerQueues.computeIfAbsent(
-                item.getPlayerId(), k -> new ArrayList<>());
+    public static boolean addToQueue(ServerPlayer player, CraftingQueueItem item) {
+        if (!player.server.isSameThread()) {
+            // El recibo ya retiró materiales: no se puede reenviar sin perder el resultado
+            EbzInventory.LOGGER.error("❌ addToQueue llamado fuera del hilo del servidor");
+            return false;
+        }
 
+        List<CraftingQueueItem> queue = playerQueues.getOrCreate(item.getPlayerId());
         if (queue.size() >= MAX_QUEUE_SIZE) {
-            Minecraft.getInstance().player.displayClientMessage(
+            player.displayClientMessage(
                     Component.literal("§cLa cola de crafteo está llena"),
                     false
             );
             return false;
         }
 
-        if (!queue.isEmpty()) {
-            item.pause();
+        item.queuedTick = currentTick(player);
+        queue.add(item);
+        int lanes = rebalance(player, queue, currentTick(player));
+        playerQueues.publish(player.getUUID());
+        CraftingQueueStore.get(player.server).markDirty(player.getUUID());
+        sync(player, queue, lanes);
+        return true;
+    }
+
+    /**
+     * Añade de una vez todos los pasos de una cadena de subcomponentes, en orden de
+     * dependencia. Si no caben todos no se añade ninguno. Solo hilo del servidor.
+     * @return true si se agregaron, false si no (cola llena o hilo incorrecto)
+     */
+    public static boolean addChainToQueue(ServerPlayer player, List<CraftingQueueItem> chain) {
+        if (!player.server.isSameThread()) {
+            EbzInventory.LOGGER.error("❌ addChainToQueue llamado fuera del hilo del servidor");
+            return false;
         }
+        if (chain.isEmpty()) return false;
 
-        queue.add(item);
+        List<CraftingQueueItem> queue = playerQueues.getOrCreate(player.getUUID());
+        if (queue.size() + chain.size() > MAX_QUEUE_SIZE) {
+            playerQueues.publish(player.getUUID());
+            player.displayClientMessage(
+                    Component.literal("§cNo hay sitio en la cola para los " + chain.size() + " pasos"),
+                    false
+            );
+            return false;
+        }
+
+        long tick = currentTick(player);
+        for (CraftingQueueItem item : chain) {
+            item.queuedTick = tick;
+        }
+        queue.addAll(chain);
+        int lanes = rebalance(player, queue, currentTick(player));
+        playerQueues.publish(player.getUUID());
+        CraftingQueueStore.get(player.server).markDirty(player.getUUID());
+        sync(player, queue, lanes);
         return true;
     }
 
+    /**
+     * Cola del jugador en el servidor. Segura desde cualquier hilo.
+     * @return Copia inmutable (lista vacía compartida si el jugador no tiene nada en cola)
+     */
     public static List<CraftingQueueItem> getPlayerQueue(UUID playerId) {
-        return playerQueues.getOrDefault(playerId, new ArrayList<>());
+        return playerQueues.snapshot(playerId);
     }
 
     @SubscribeEvent
-    public static void onClientTick(TickEvent.ClientTickEvent event) {
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase != TickEvent.Phase.END) return;
 
-        Minecraft minecraft = Minecraft.getInstance();
-        if (minecraft.player == null || minecraft.level == null) return;
+        tickingServer = event.getServer();
+        tickingTick = tickingServer.getTickCount();
+        completions.advanceTo(tickingTick, CraftingQueueHandler::onCompletionDue);
+        tickingServer = null;
+    }
 
-        List<CraftingQueueItem> queue = getPlayerQueue(minecraft.player.getUUID());
-        if (queue.isEmpty()) return;
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        // El contador de ticks vuelve a empezar con el siguiente servidor
+        playerQueues.clear();
+        syncTracker.clear();
+        completions.clear(0);
+    }
+
+    private static void onCompletionDue(CraftingQueueItem item) {
+        item.completionTimer = null;
+        List<CraftingQueueItem> queue = playerQueues.get(item.getPlayerId());
+        if (queue == null || !queue.contains(item)) return;
 
-        CraftingQueueItem firstItem = queue.get(0);
-        if (firstItem.isPaused()) {
-            firstItem.resume();
+        ServerPlayer player = tickingServer.getPlayerList().getPlayer(item.getPlayerId());
+        if (player == null) {
+            // El jugador ya no está; la desconexión debería haber desalojado la cola
+            playerQueues.remove(item.getPlayerId());
+            return;
         }
 
-        if (firstItem.isCompleted()) {
-            // Entregar item - Asegúrate de utilizar una copia del resultado para evitar problemas
-            ItemStack result = firstItem.getResult().copy();
+        int delivered = item.completeStep();
+        deliver(player, item, delivered);
+        CraftingMetrics.recordCrafted(item.getRecipeId(), delivered);
+        CraftingQueueStore.get(tickingServer).markDirty(player.getUUID());
 
-            // Verificación adicional para asegurar que no estamos entregando un item vacío
-            if (result.isEmpty() && firstItem.getRecipe() != null) {
-                result = firstItem.getRecipe().getResult().copy();
+        if (item.isFinished()) {
+            queue.remove(item);
+            // Las entradas cargadas de disco no conservan su tick de encolado
+            if (item.queuedTick != CraftingQueueItem.NOT_STARTED) {
+                CraftingMetrics.recordCompleted(tickingTick - item.queuedTick);
             }
+            announce(player, item);
+        }
+        // El siguiente paso del lote o la siguiente entrada ocupan la línea libre
+        int lanes = rebalance(player, queue, tickingTick);
+        playerQueues.publish(player.getUUID());
+        sync(player, queue, lanes);
+    }
 
-            if (!result.isEmpty()) {
-                if (!minecraft.player.getInventory().add(result)) {
-                    minecraft.player.drop(result, false);
+    /**
+     * Pone en marcha las primeras entradas, una por línea, y detiene las demás. Los pasos de
+     * una cadena que aún esperan ingredientes no ocupan línea.
+     *
+     * @return Número de líneas del jugador
+     */
+    private static int rebalance(ServerPlayer player, List<CraftingQueueItem> queue, long tick) {
+        int lanes = CraftingLanes.laneCount(player);
+        int running = 0;
+        for (int i = 0; i < queue.size(); i++) {
+            CraftingQueueItem item = queue.get(i);
+            if (!item.isAwaitingInputs() && running < lanes) {
+                running++;
+                if (item.isPaused()) {
+                    resume(item, tick);
                 }
-
-                // Mensaje y sonido con el nombre correcto del item
-                minecraft.player.displayClientMessage(
-                        Component.literal("§aCrafteo completado: §f" + result.getHoverName().getString()),
-                        false
-                );
-                minecraft.player.playSound(
-                        net.minecraft.sounds.SoundEvents.UI_STONECUTTER_TAKE_RESULT,
-                        1.0F,
-                        1.0F
-                );
-            } else {
-                // Mensaje de error si aún así el item es vacío (para depuración)
-                minecraft.player.displayClientMessage(
-                        Component.literal("§cError al craftear: Item no encontrado"),
-                        false
-                );
+            } else if (!item.isPaused()) {
+                pause(item, tick);
             }
+        }
+        return lanes;
+    }
 
-            // Remover de la cola
-            queue.remove(0);
+    /**
+     * Pone una entrada en marcha y programa (o mueve) su temporizador de finalización.
+     */
+    static void resume(CraftingQueueItem item, long tick) {
+        if (!item.waitRecorded && item.queuedTick != CraftingQueueItem.NOT_STARTED) {
+            item.waitRecorded = true;
+            CraftingMetrics.recordQueueWait(tick - item.queuedTick);
+        }
+        item.resume(tick);
+        if (item.completionTimer != null) {
+            completions.reschedule(item.completionTimer, item.getCompletionTick());
+        } else {
+            item.completionTimer = completions.schedule(item, item.getCompletionTick());
+        }
+    }
+
+    /**
+     * Detiene una entrada conservando su progreso y retira su temporizador.
+     */
+    static void pause(CraftingQueueItem item, long tick) {
+        item.pause(tick);
+        completions.cancel(item.completionTimer);
+        item.completionTimer = null;
+    }
+
+    private static void deliver(ServerPlayer player, CraftingQueueItem item, int crafts) {
+        // Los materiales de estas unidades quedan gastados: ya no admiten reembolso
+        if (item.getReceipt() != null) {
+            item.getReceipt().markConsumed(crafts);
+        }
 
-            // Iniciar siguiente item si existe
-            if (!queue.isEmpty()) {
-                queue.get(0).resume();
+        // Entregar item - Asegúrate de utilizar una copia del resultado para evitar problemas
+        ItemStack result = item.getResult();
+        if (result.isEmpty()) {
+            // Mensaje de error si aún así el item es vacío (para depuración)
+            player.displayClientMessage(
+                    Component.literal("§cError al craftear: Item no encontrado"),
+                    false
+            );
+            return;
+        }
+
+        // En una cadena, lo reservado para pasos posteriores pasa a sus recibos
+        int produced = crafts * result.getCount();
+        if (item.feeds != null) {
+            for (CraftingQueueItem.ChainFeed feed : item.feeds) {
+                int given = Math.min(feed.remaining, produced);
+                if (given <= 0) continue;
+                if (feed.target.getReceipt() != null) {
+                    feed.target.getReceipt().credit(result.getItem(), given, result.getTag());
+                }
+                feed.target.awaitedInputs -= given;
+                feed.remaining -= given;
+                produced -= given;
+            }
+            item.feeds.removeIf(feed -> feed.remaining <= 0);
+        }
+
+        while (produced > 0) {
+            int count = Math.min(produced, result.getMaxStackSize());
+            ItemStack stack = result.copyWithCount(count);
+            produced -= count;
+            if (!player.getInventory().add(stack)) {
+                player.drop(stack, false);
             }
         }
     }
 
-    public static void cancelItem(UUID playerId, int index) {
-        List<CraftingQueueItem> queue = playerQueues.get(playerId);
+    private static void announce(ServerPlayer player, CraftingQueueItem item) {
+        // Mensaje y sonido con el nombre correcto del item
+        String name = item.getResult().getHoverName().getString();
+        String amount = item.getCrafts() > 1 ? " x" + item.getCrafts() : "";
+        player.displayClientMessage(
+                Component.literal("§aCrafteo completado: §f" + name + amount),
+                false
+        );
+        player.playNotifySound(SoundEvents.UI_STONECUTTER_TAKE_RESULT, SoundSource.PLAYERS, 1.0F, 1.0F);
+    }
+
+    /**
+     * Cancela un item de la cola y reembolsa exactamente los materiales que pagó. En un
+     * lote empezado solo se devuelve la parte de las unidades aún no entregadas. En una
+     * cadena de subcomponentes se cancelan también los pasos que dependen de él.
+     * @param player Jugador dueño de la cola
+     * @param index Posición en la cola
+     */
+    public static void cancelItem(ServerPlayer player, int index) {
+        if (player == null) return;
+        if (!player.server.isSameThread()) {
+            player.server.execute(() -> cancelItem(player, index));
+            return;
+        }
+        List<CraftingQueueItem> queue = playerQueues.get(player.getUUID());
         if (queue != null && index >= 0 && index < queue.size()) {
-            // Devolvemos los materiales cuando se cancela un item
-            CraftingQueueItem canceledItem = queue.get(index);
-            if (canceledItem.getProgress() < 1.0f) {
-                returnMaterials(canceledItem.getRecipe(), playerId);
+            long tick = currentTick(player);
+            // Lo que sigue en la cola aún no se ha entregado: siempre se reembolsa
+            int canceled = cancelWithDependents(player, queue, queue.get(index), tick);
+            CraftingMetrics.recordCanceled(canceled);
+            int dependents = canceled - 1;
+            if (dependents > 0) {
+                player.displayClientMessage(
+                        Component.literal("§eTambién se cancelaron " + dependents + " pasos que dependían de este"),
+                        false
+                );
             }
 
-            queue.remove(index);
-            // Si quedan items y estaba pausado el siguiente, lo reanudamos
-            if (!queue.isEmpty() && index == 0) {
-                queue.get(0).resume();
+            // Si se liberó una línea, la siguiente entrada empieza ahora
+            int lanes = rebalance(player, queue, tick);
+            playerQueues.publish(player.getUUID());
+            CraftingQueueStore.get(player.server).markDirty(player.getUUID());
+            sync(player, queue, lanes);
+        }
+    }
+
+    /**
+     * Retira de la cola una entrada y todos los pasos de su cadena que esperan su resultado,
+     * reembolsando cada uno. Los pasos anteriores que la alimentaban entregan al jugador lo
+     * que tenían reservado para ella.
+     *
+     * @return Entradas retiradas, incluida la indicada
+     */
+    private static int cancelWithDependents(ServerPlayer player, List<CraftingQueueItem> queue,
+                                            CraftingQueueItem item, long tick) {
+        Set<CraftingQueueItem> canceled = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<CraftingQueueItem> pending = new ArrayDeque<>();
+        pending.add(item);
+        while (!pending.isEmpty()) {
+            CraftingQueueItem current = pending.poll();
+            if (!canceled.add(current)) continue;
+            if (current.feeds != null) {
+                for (CraftingQueueItem.ChainFeed feed : current.feeds) {
+                    pending.add(feed.target);
+                }
             }
         }
+
+        queue.removeIf(canceled::contains);
+        for (CraftingQueueItem entry : queue) {
+            if (entry.feeds != null) {
+                entry.feeds.removeIf(feed -> canceled.contains(feed.target));
+            }
+        }
+        for (CraftingQueueItem entry : canceled) {
+            pause(entry, tick);
+            refund(entry, player);
+        }
+        return canceled.size();
     }
 
-    public static void clearQueue(UUID playerId) {
-        List<CraftingQueueItem> queue = playerQueues.get(playerId);
+    public static void clearQueue(ServerPlayer player) {
+        if (player == null) return;
+        if (!player.server.isSameThread()) {
+            player.server.execute(() -> clearQueue(player));
+            return;
+        }
+        List<CraftingQueueItem> queue = playerQueues.remove(player.getUUID());
         if (queue != null) {
-            // Devolver materiales de todos los items no completados
+            // Devolver materiales de todos los items aún no entregados
+            long tick = currentTick(player);
             for (CraftingQueueItem item : queue) {
-                if (item.getProgress() < 1.0f) {
-                    returnMaterials(item.getRecipe(), playerId);
-                }
+                pause(item, tick);
+                refund(item, player);
             }
+            CraftingMetrics.recordCanceled(queue.size());
             queue.clear();
+            CraftingQueueStore.get(player.server).markDirty(player.getUUID());
+            sync(player, queue, 0);
         }
     }
 
-    private static void returnMaterials(InventoryRecipe recipe, UUID playerId) {
-        if (recipe == null) return;
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
 
-        ServerPlayer player = ServerLifecycleHooks.getCurrentServer()
-                .getPlayerList().getPlayer(playerId);
-        if (player != null) {
-            for (Map.Entry<Item, Integer> ingredient : recipe.getIngredients().entrySet()) {
-                ItemStack returnStack = new ItemStack(ingredient.getKey(), ingredient.getValue());
-                if (!player.getInventory().add(returnStack)) {
-                    player.drop(returnStack, false);
-                }
+        CraftingQueueStore store = CraftingQueueStore.get(player.server);
+        List<CraftingQueueItem> queue = store.restore(player.getUUID());
+        if (queue.isEmpty()) return;
+
+        // Las recetas eliminadas desde que se guardó la cola ya no pueden completarse, ni los
+        // pasos de cadena que dependían de ellas
+        for (CraftingQueueItem item : new ArrayList<>(queue)) {
+            if (item.getRecipe() != null || !queue.contains(item)) continue;
+            cancelWithDependents(player, queue, item, currentTick(player));
+            player.displayClientMessage(
+                    Component.literal("§eLa receta " + item.getRecipeId() + " ya no existe; materiales devueltos"),
+                    false
+            );
+        }
+        // La copia guardada ya se retiró: el próximo guardado escribe la cola en curso
+        store.markDirty(player.getUUID());
+
+        if (!queue.isEmpty()) {
+            int lanes = rebalance(player, queue, currentTick(player));
+            playerQueues.put(player.getUUID(), queue);
+            syncTracker.sendFull(player, queue, lanes, currentTick(player));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        // La cola se guarda en espera con sus materiales y sale de memoria
+        if (event.getEntity() instanceof ServerPlayer player) {
+            List<CraftingQueueItem> queue = playerQueues.remove(player.getUUID());
+            syncTracker.forget(player.getUUID());
+            long tick = currentTick(player);
+            List<CraftingQueueItem> saved = queue != null ? queue : Collections.emptyList();
+            CraftingQueueStore.get(player.server).stash(player.getUUID(), saved, tick);
+            for (CraftingQueueItem item : saved) {
+                pause(item, tick);
             }
         }
     }
-}
\ No newline at end of file
+
+    private static void refund(CraftingQueueItem item, ServerPlayer player) {
+        MaterialReceipt receipt = item.getReceipt();
+        if (receipt != null && !receipt.isSettled()) {
+            receipt.refund(player);
+            CraftingMetrics.recordRefund();
+        }
+    }
+
+    static long currentTick(ServerPlayer player) {
+        return player.server.getTickCount();
+    }
+
+    static long currentTick() {
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        return server != null ? server.getTickCount() : 0;
+    }
+
+    private static void sync(ServerPlayer player, List<CraftingQueueItem> queue, int lanes) {
+        syncTracker.sendChanges(player, queue, lanes, currentTick(player));
+    }
+
+    /**
+     * Vuelve a enviar la cola completa; el cliente lo pide si un cambio no encaja con su copia.
+     */
+    public static void resync(ServerPlayer player) {
+        if (player == null) return;
+        if (!player.server.isSameThread()) {
+            player.server.execute(() -> resync(player));
+            return;
+        }
+        List<CraftingQueueItem> queue = playerQueues.get(player.getUUID());
+        List<CraftingQueueItem> current = queue != null ? queue : Collections.emptyList();
+        int lanes = current.isEmpty() ? 0 : CraftingLanes.laneCount(player);
+        syncTracker.sendFull(player, current, lanes, currentTick(player));
+    }
+}
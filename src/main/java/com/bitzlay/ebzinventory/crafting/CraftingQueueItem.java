@@ -2,69 +2,274 @@ package com.bitzlay.ebzinventory.crafting;
 
 import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
 import net.minecraft.world.item.ItemStack;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Entrada de la cola de crafteo. El tiempo se mide en ticks de servidor: una entrada en
+ * marcha guarda el tick en que habría empezado si nunca se hubiera detenido, y una en
+ * espera guarda el progreso acumulado.
+ *
+ * Una entrada puede ser un lote de varias unidades pagadas de una vez. El lote avanza por
+ * pasos de {@code stride} unidades: el temporizador cubre solo el paso actual y, al
+ * completarse, se entregan esas unidades y empieza el siguiente paso.
+ *
+ * Las entradas de una cadena de subcomponentes ({@link CraftingPlanner}) están enlazadas:
+ * parte del resultado de un paso se reserva para pasos posteriores, que no empiezan hasta
+ * haber recibido todo lo que esperan.
+ */
 public class CraftingQueueItem {
+    /** Valor de {@link #getStartTick()} para entradas en espera */
+    public static final long NOT_STARTED = -1;
+
     private final String recipeId;
     private final UUID playerId;
-    private long startTime;
-    private final long totalTime;
+    private final long ticksPerCraft;
+    private final int crafts;
+    private final int stride;
     private final ItemStack result;
-    private boolean completed;
-    private boolean paused;
-    private long pausedTime;
     private final InventoryRecipe recipe;
+    private final MaterialReceipt receipt;
+
+    private int completedCrafts;
+    private long startTick = NOT_STARTED;
+    private long elapsedTicks;
+
+    // Temporizador de finalización mientras la entrada está en marcha (solo servidor)
+    TimingWheel.Timer<CraftingQueueItem> completionTimer;
+
+    // Cadena de subcomponentes (solo servidor): entregas reservadas para pasos posteriores
+    // y items que esta entrada aún espera de pasos anteriores
+    List<ChainFeed> feeds;
+    int awaitedInputs;
+
+    // Métricas (solo servidor): tick en que se encoló y si ya se midió su espera
+    long queuedTick = NOT_STARTED;
+    boolean waitRecorded;
+
+    // Último estado enviado al cliente (solo servidor)
+    long sentStartTick = NOT_STARTED;
+    long sentElapsedTicks;
+    int sentCompletedCrafts;
+
+    /**
+     * Parte del resultado de una entrada reservada para otra entrada posterior de la cadena.
+     */
+    static final class ChainFeed {
+        final CraftingQueueItem target;
+        int remaining;
 
-    public CraftingQueueItem(String recipeId, UUID playerId, ItemStack result, long totalTimeInTicks, InventoryRecipe recipe) {
+        ChainFeed(CraftingQueueItem target, int remaining) {
+            this.target = target;
+            this.remaining = remaining;
+        }
+    }
+
+    public CraftingQueueItem(String recipeId, UUID playerId, ItemStack result, long ticksPerCraft, InventoryRecipe recipe,
+                             MaterialReceipt receipt) {
+        this(recipeId, playerId, result, ticksPerCraft, 1, 1, recipe, receipt);
+    }
+
+    public CraftingQueueItem(String recipeId, UUID playerId, ItemStack result, long ticksPerCraft, int crafts, int stride,
+                             InventoryRecipe recipe, MaterialReceipt receipt) {
         this.recipeId = recipeId;
         this.playerId = playerId;
-        this.startTime = System.currentTimeMillis();
-        this.totalTime = totalTimeInTicks * 50;
+        this.ticksPerCraft = Math.max(1, ticksPerCraft);
+        this.crafts = Math.max(1, crafts);
+        this.stride = Math.max(1, stride);
         // Asegurarse de que estamos guardando una copia del resultado
         this.result = result.isEmpty() ? (recipe != null ? recipe.getResult().copy() : result.copy()) : result.copy();
-        this.completed = false;
-        this.paused = false;
-        this.pausedTime = 0;
         this.recipe = recipe;
+        this.receipt = receipt;
     }
 
-    public void pause() {
-        if (!paused) {
-            paused = true;
-            pausedTime = System.currentTimeMillis() - startTime;
+    /**
+     * Reconstruye una entrada a partir de su estado sincronizado (lado cliente).
+     */
+    public static CraftingQueueItem restore(String recipeId, UUID playerId, InventoryRecipe recipe, long ticksPerCraft,
+                                            int crafts, int completedCrafts, int stride,
+                                            long startTick, long elapsedTicks) {
+        ItemStack result = recipe != null ? recipe.getResult() : ItemStack.EMPTY;
+        CraftingQueueItem item = new CraftingQueueItem(recipeId, playerId, result, ticksPerCraft, crafts, stride, recipe, null);
+        item.completedCrafts = completedCrafts;
+        item.startTick = startTick;
+        item.elapsedTicks = elapsedTicks;
+        return item;
+    }
+
+    /**
+     * Reconstruye una entrada guardada (lado servidor). Queda en espera con su progreso.
+     */
+    static CraftingQueueItem load(String recipeId, UUID playerId, InventoryRecipe recipe, long ticksPerCraft,
+                                  int crafts, int completedCrafts, int stride, long elapsedTicks,
+                                  MaterialReceipt receipt) {
+        ItemStack result = recipe != null ? recipe.getResult() : ItemStack.EMPTY;
+        CraftingQueueItem item = new CraftingQueueItem(recipeId, playerId, result, ticksPerCraft, crafts, stride, recipe, receipt);
+        item.completedCrafts = Math.max(0, Math.min(item.crafts - 1, completedCrafts));
+        item.elapsedTicks = Math.max(0, Math.min(item.getDurationTicks(), elapsedTicks));
+        return item;
+    }
+
+    /**
+     * Pone la entrada en marcha, conservando el progreso que tuviera.
+     */
+    public void resume(long tick) {
+        if (startTick == NOT_STARTED) {
+            startTick = tick - elapsedTicks;
         }
     }
 
-    public void resume() {
-        if (paused) {
-            paused = false;
-            startTime = System.currentTimeMillis() - pausedTime;
+    /**
+     * Detiene la entrada guardando su progreso.
+     */
+    public void pause(long tick) {
+        if (startTick != NOT_STARTED) {
+            elapsedTicks = Math.min(getDurationTicks(), tick - startTick);
+            startTick = NOT_STARTED;
         }
     }
 
     public boolean isPaused() {
-        return paused;
+        return startTick == NOT_STARTED;
     }
 
-    public float getProgress() {
-        if (completed) return 1.0f;
-        if (paused) return pausedTime / (float)totalTime;
+    /**
+     * Reserva {@code amount} items del resultado para una entrada posterior, que no podrá
+     * empezar hasta recibirlos.
+     */
+    void feed(CraftingQueueItem target, int amount) {
+        if (amount <= 0) return;
+        if (feeds == null) {
+            feeds = new ArrayList<>(1);
+        }
+        feeds.add(new ChainFeed(target, amount));
+        target.awaitedInputs += amount;
+    }
 
-        long elapsed = System.currentTimeMillis() - startTime;
-        return Math.min(1.0f, elapsed / (float)totalTime);
+    /**
+     * Indica si la entrada espera ingredientes de un paso anterior de su cadena.
+     */
+    boolean isAwaitingInputs() {
+        return awaitedInputs > 0;
     }
 
-    public boolean isCompleted() {
-        if (!completed && !paused) {
-            completed = getProgress() >= 1.0f;
-        }
-        return completed;
+    /**
+     * Cierra el paso actual del lote y deja el siguiente en espera.
+     *
+     * @return Unidades completadas en este paso
+     */
+    int completeStep() {
+        int step = getStepCrafts();
+        completedCrafts += step;
+        startTick = NOT_STARTED;
+        elapsedTicks = 0;
+        return step;
+    }
+
+    /**
+     * Indica si ya se completaron todas las unidades del lote.
+     */
+    public boolean isFinished() {
+        return completedCrafts >= crafts;
+    }
+
+    /**
+     * Tick de servidor desde el que cuenta el progreso del paso actual, o {@link #NOT_STARTED}.
+     */
+    public long getStartTick() {
+        return startTick;
+    }
+
+    /**
+     * Progreso del paso actual acumulado mientras la entrada estaba en espera.
+     */
+    public long getElapsedTicks() {
+        return elapsedTicks;
+    }
+
+    /**
+     * Progreso del paso actual en ticks en el tick indicado, esté en marcha o en espera.
+     */
+    public long getElapsedTicks(long tick) {
+        return startTick == NOT_STARTED ? elapsedTicks : Math.min(getDurationTicks(), tick - startTick);
+    }
+
+    public long getTicksPerCraft() {
+        return ticksPerCraft;
+    }
+
+    /**
+     * Duración del paso actual.
+     */
+    public long getDurationTicks() {
+        return ticksPerCraft * getStepCrafts();
+    }
+
+    /**
+     * Unidades que se entregan al completar el paso actual.
+     */
+    public int getStepCrafts() {
+        return Math.max(1, Math.min(stride, crafts - completedCrafts));
+    }
+
+    public int getCrafts() {
+        return crafts;
+    }
+
+    public int getCompletedCrafts() {
+        return completedCrafts;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Tick en que termina el paso actual si sigue en marcha, o {@link #NOT_STARTED} si está en espera.
+     */
+    public long getCompletionTick() {
+        return startTick == NOT_STARTED ? NOT_STARTED : startTick + getDurationTicks();
+    }
+
+    /**
+     * Progreso de todo el lote entre 0 y 1 en el tick indicado.
+     */
+    public float getProgress(long tick) {
+        return getProgress((double) tick);
+    }
+
+    /**
+     * Progreso de todo el lote con tiempo fraccionario (tick + partialTick), para que las
+     * barras avancen de forma continua entre ticks.
+     */
+    public float getProgress(double time) {
+        double stepElapsed = startTick == NOT_STARTED
+                ? elapsedTicks
+                : Math.min(getDurationTicks(), time - startTick);
+        double done = completedCrafts * (double) ticksPerCraft + Math.max(0.0, stepElapsed);
+        return (float) Math.max(0.0, Math.min(1.0, done / (crafts * (double) ticksPerCraft)));
+    }
+
+    /**
+     * Indica si el paso actual terminó en el tick indicado.
+     */
+    public boolean isCompleted(long tick) {
+        return startTick != NOT_STARTED && tick >= startTick + getDurationTicks();
     }
 
     public InventoryRecipe getRecipe() {
         return recipe;
     }
 
+    /**
+     * Recibo de los materiales pagados por este crafteo; se usa para reembolsos exactos.
+     * Solo existe en el servidor.
+     */
+    public MaterialReceipt getReceipt() {
+        return receipt;
+    }
+
     public ItemStack getResult() {
         // Si el resultado está vacío por alguna razón, intentar recuperarlo de la receta
         if (result.isEmpty() && recipe != null) {
@@ -80,4 +285,4 @@ public class CraftingQueueItem {
     public UUID getPlayerId() {
         return playerId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,195 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Colas de crafteo guardadas en el mundo ({@code data/ebzinventory_crafting_queues.dat}).
+ *
+ * Cada cola se guarda ya serializada y solo se vuelve a serializar cuando cambia: las de
+ * jugadores desconectados se escriben una vez al salir, y las de jugadores conectados se
+ * marcan como pendientes en cada cambio y se serializan en el siguiente guardado del mundo.
+ * Las entradas se guardan en espera, con los ticks ya avanzados y el recibo de materiales,
+ * porque el contador de ticks del servidor vuelve a cero en cada arranque. Los enlaces de
+ * las cadenas de subcomponentes se guardan como posiciones dentro de la misma cola.
+ */
+public class CraftingQueueStore extends SavedData {
+    private static final String NAME = "ebzinventory_crafting_queues";
+
+    // Se incrementa cada vez que cambia el formato guardado
+    private static final int FORMAT_VERSION = 1;
+
+    // Cola serializada de cada jugador con entradas pendientes
+    private final Map<UUID, ListTag> stored = new HashMap<>();
+
+    // Jugadores conectados cuya cola cambió desde el último guardado
+    private final Set<UUID> dirtyPlayers = new HashSet<>();
+
+    public static CraftingQueueStore get(MinecraftServer server) {
+        return server.overworld().getDataStorage().computeIfAbsent(
+                CraftingQueueStore::load, CraftingQueueStore::new, NAME);
+    }
+
+    /**
+     * Marca la cola de un jugador conectado para serializarla en el próximo guardado.
+     */
+    public void markDirty(UUID playerId) {
+        dirtyPlayers.add(playerId);
+        setDirty();
+    }
+
+    /**
+     * Guarda la cola de un jugador que se desconecta. Ya no se volverá a serializar hasta
+     * que vuelva a conectarse.
+     */
+    public void stash(UUID playerId, List<CraftingQueueItem> queue, long tick) {
+        dirtyPlayers.remove(playerId);
+        if (queue.isEmpty()) {
+            if (stored.remove(playerId) == null) return;
+        } else {
+            stored.put(playerId, writeQueue(queue, tick));
+        }
+        setDirty();
+    }
+
+    /**
+     * Carga la cola guardada de un jugador. Todas las entradas quedan en espera.
+     *
+     * La copia guardada se retira: desde aquí la cola vive en memoria y quien la restaura
+     * debe marcarla con {@link #markDirty(UUID)} para que el próximo guardado escriba su
+     * estado actual y no la copia de la desconexión.
+     */
+    public List<CraftingQueueItem> restore(UUID playerId) {
+        ListTag entries = stored.remove(playerId);
+        if (entries == null) return new ArrayList<>();
+        setDirty();
+        return readQueue(playerId, entries);
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        if (!dirtyPlayers.isEmpty()) {
+            long tick = CraftingQueueHandler.currentTick();
+            for (UUID playerId : dirtyPlayers) {
+                List<CraftingQueueItem> queue = CraftingQueueHandler.getPlayerQueue(playerId);
+                if (queue.isEmpty()) {
+                    stored.remove(playerId);
+                } else {
+                    stored.put(playerId, writeQueue(queue, tick));
+                }
+            }
+            dirtyPlayers.clear();
+        }
+
+        tag.putInt("version", FORMAT_VERSION);
+        ListTag queues = new ListTag();
+        for (Map.Entry<UUID, ListTag> entry : stored.entrySet()) {
+            CompoundTag queueTag = new CompoundTag();
+            queueTag.putUUID("player", entry.getKey());
+            queueTag.put("entries", entry.getValue());
+            queues.add(queueTag);
+        }
+        tag.put("queues", queues);
+        return tag;
+    }
+
+    private static CraftingQueueStore load(CompoundTag tag) {
+        CraftingQueueStore store = new CraftingQueueStore();
+        int version = tag.getInt("version");
+        if (version != FORMAT_VERSION) {
+            EbzInventory.LOGGER.warn("⚠️ Formato de colas de crafteo desconocido (v{}); se ignoran las colas guardadas", version);
+            return store;
+        }
+
+        ListTag queues = tag.getList("queues", Tag.TAG_COMPOUND);
+        for (int i = 0; i < queues.size(); i++) {
+            CompoundTag queueTag = queues.getCompound(i);
+            if (!queueTag.hasUUID("player")) continue;
+            store.stored.put(queueTag.getUUID("player"), queueTag.getList("entries", Tag.TAG_COMPOUND));
+        }
+        EbzInventory.LOGGER.info("✅ Cargadas {} colas de crafteo guardadas", store.stored.size());
+        return store;
+    }
+
+    private static ListTag writeQueue(List<CraftingQueueItem> queue, long tick) {
+        Map<CraftingQueueItem, Integer> positions = new IdentityHashMap<>(queue.size());
+        for (int i = 0; i < queue.size(); i++) {
+            positions.put(queue.get(i), i);
+        }
+
+        ListTag entries = new ListTag();
+        for (CraftingQueueItem item : queue) {
+            CompoundTag entry = new CompoundTag();
+            entry.putString("id", item.getRecipeId());
+            entry.putLong("elapsed", item.getElapsedTicks(tick));
+            entry.putLong("duration", item.getTicksPerCraft());
+            if (item.getCrafts() > 1) {
+                entry.putInt("crafts", item.getCrafts());
+                entry.putInt("done", item.getCompletedCrafts());
+                entry.putInt("stride", item.getStride());
+            }
+            if (item.getReceipt() != null) {
+                entry.put("receipt", item.getReceipt().save());
+            }
+            if (item.feeds != null && !item.feeds.isEmpty()) {
+                ListTag feeds = new ListTag();
+                for (CraftingQueueItem.ChainFeed feed : item.feeds) {
+                    Integer target = positions.get(feed.target);
+                    if (target == null || feed.remaining <= 0) continue;
+                    CompoundTag feedTag = new CompoundTag();
+                    feedTag.putInt("to", target);
+                    feedTag.putInt("n", feed.remaining);
+                    feeds.add(feedTag);
+                }
+                entry.put("feeds", feeds);
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<CraftingQueueItem> readQueue(UUID playerId, ListTag entries) {
+        List<CraftingQueueItem> queue = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            CompoundTag entry = entries.getCompound(i);
+            String recipeId = entry.getString("id");
+            InventoryRecipe recipe = InventoryRecipeManager.getRecipe(recipeId);
+            MaterialReceipt receipt = entry.contains("receipt", Tag.TAG_COMPOUND)
+                    ? MaterialReceipt.load(entry.getCompound("receipt"), recipe)
+                    : null;
+            // Las entradas de una sola unidad no guardan los campos de lote
+            int crafts = entry.contains("crafts", Tag.TAG_INT) ? entry.getInt("crafts") : 1;
+            int stride = entry.contains("stride", Tag.TAG_INT) ? entry.getInt("stride") : 1;
+            queue.add(CraftingQueueItem.load(recipeId, playerId, recipe, entry.getLong("duration"),
+                    crafts, entry.getInt("done"), stride, entry.getLong("elapsed"), receipt));
+        }
+
+        // Enlaces de cadena: solo hacia entradas posteriores de la misma cola
+        for (int i = 0; i < queue.size(); i++) {
+            ListTag feeds = entries.getCompound(i).getList("feeds", Tag.TAG_COMPOUND);
+            for (int f = 0; f < feeds.size(); f++) {
+                CompoundTag feedTag = feeds.getCompound(f);
+                int target = feedTag.getInt("to");
+                if (target > i && target < queue.size()) {
+                    queue.get(i).feed(queue.get(target), feedTag.getInt("n"));
+                }
+            }
+        }
+        return queue;
+    }
+}
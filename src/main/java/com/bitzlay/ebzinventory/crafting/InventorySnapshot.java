@@ -0,0 +1,152 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Histograma de items de un inventario, calculado en una sola pasada.
+ *
+ * Sustituye las llamadas a {@code Inventory.countItem} por ingrediente: con una
+ * instantánea, evaluar una receta cuesta O(ingredientes) en lugar de
+ * O(ingredientes × slots). Una misma instantánea debe reutilizarse para todas las
+ * comprobaciones de un tick o frame.
+ */
+public final class InventorySnapshot {
+    /** Slots que participan en el crafteo: inventario principal y hotbar */
+    public static final int CRAFTING_SLOTS = Inventory.INVENTORY_SIZE;
+
+    private final ItemCountMap counts;
+
+    private InventorySnapshot(ItemCountMap counts) {
+        this.counts = counts;
+    }
+
+    /**
+     * Crea una instantánea vacía, pensada para mantenerse de forma incremental con {@link #adjust}.
+     */
+    public static InventorySnapshot empty() {
+        return new InventorySnapshot(new ItemCountMap(CRAFTING_SLOTS));
+    }
+
+    /**
+     * Cuenta los items del inventario principal del jugador.
+     */
+    public static InventorySnapshot of(Player player) {
+        return of(player.getInventory(), CRAFTING_SLOTS);
+    }
+
+    /**
+     * Cuenta los items de los primeros {@code slotCount} slots de un contenedor.
+     *
+     * @param container Contenedor a recorrer
+     * @param slotCount Número de slots a considerar
+     */
+    public static InventorySnapshot of(Container container, int slotCount) {
+        int limit = Math.min(slotCount, container.getContainerSize());
+        int[] itemIds = new int[limit];
+        int[] itemCounts = new int[limit];
+        for (int slot = 0; slot < limit; slot++) {
+            ItemStack stack = container.getItem(slot);
+            if (!stack.isEmpty()) {
+                itemIds[slot] = Item.getId(stack.getItem());
+                itemCounts[slot] = stack.getCount();
+            }
+        }
+        return of(itemIds, itemCounts, limit);
+    }
+
+    /**
+     * Cuenta un inventario dado como id numérico de item y cantidad por slot.
+     * Los slots con cantidad 0 o menor se tratan como vacíos.
+     *
+     * @param slotCount Número de slots a considerar
+     */
+    public static InventorySnapshot of(int[] itemIds, int[] itemCounts, int slotCount) {
+        ItemCountMap counts = new ItemCountMap(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (itemCounts[slot] > 0) {
+                counts.add(itemIds[slot], itemCounts[slot]);
+            }
+        }
+        return new InventorySnapshot(counts);
+    }
+
+    /**
+     * Cantidad total del item en la instantánea.
+     */
+    public int count(Item item) {
+        return counts.get(Item.getId(item));
+    }
+
+    /**
+     * Suma {@code delta} a la cantidad del item. Solo para quien mantiene la instantánea
+     * incrementalmente; las instantáneas compartidas no deben modificarse.
+     */
+    public void adjust(Item item, int delta) {
+        adjust(Item.getId(item), delta);
+    }
+
+    /**
+     * Como {@link #adjust(Item, int)}, con el id numérico del item.
+     */
+    public void adjust(int itemId, int delta) {
+        counts.add(itemId, delta);
+    }
+
+    /**
+     * Vacía la instantánea.
+     */
+    public void clear() {
+        counts.clear();
+    }
+
+    /**
+     * Indica si hay materiales suficientes para una unidad de la receta.
+     */
+    public boolean canCraft(InventoryRecipe recipe) {
+        return canCraft(recipe.getIngredientIds(), recipe.getIngredientAmounts());
+    }
+
+    /**
+     * Indica si hay materiales suficientes para una unidad, con los ingredientes como ids
+     * numéricos y cantidades en arrays paralelos.
+     */
+    public boolean canCraft(int[] itemIds, int[] amounts) {
+        for (int i = 0; i < itemIds.length; i++) {
+            if (counts.get(itemIds[i]) < amounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Número de veces que la receta puede craftearse con estos materiales.
+     *
+     * @return Mínimo entre ingredientes de disponible/requerido; 1 si la receta no tiene
+     *         ingredientes, para que "máximo" no pida un lote sin límite ni la interfaz
+     *         muestre una cantidad absurda
+     */
+    public int maxCraftable(InventoryRecipe recipe) {
+        return maxCraftable(recipe.getIngredientIds(), recipe.getIngredientAmounts());
+    }
+
+    /**
+     * Como {@link #maxCraftable(InventoryRecipe)}, con los ingredientes como ids numéricos
+     * y cantidades en arrays paralelos.
+     */
+    public int maxCraftable(int[] itemIds, int[] amounts) {
+        int max = Integer.MAX_VALUE;
+        for (int i = 0; i < itemIds.length; i++) {
+            int required = amounts[i];
+            if (required <= 0) continue;
+            max = Math.min(max, counts.get(itemIds[i]) / required);
+            if (max == 0) break;
+        }
+        return max == Integer.MAX_VALUE ? 1 : max;
+    }
+}
@@ -0,0 +1,119 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de direccionamiento abierto de id numérico de item a cantidad.
+ * Evita el boxing de {@code Map<Item, Integer>} en los cálculos de crafteo; las claves
+ * son los ids de registro de los items (siempre >= 0).
+ *
+ * No es thread-safe: cada instancia pertenece al hilo que la creó.
+ */
+public final class ItemCountMap {
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public ItemCountMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedKeys Número aproximado de items distintos
+     */
+    public ItemCountMap(int expectedKeys) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedKeys * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Cantidad asociada al id, o 0 si no existe.
+     */
+    public int get(int key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int current = keys[slot];
+            if (current == key) return values[slot];
+            if (current == EMPTY) return 0;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Suma {@code delta} a la cantidad del id y devuelve el nuevo total.
+     * Las claves que llegan a 0 se conservan; {@link #get} las trata igual que ausentes.
+     */
+    public int add(int key, int delta) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int current = keys[slot];
+            if (current == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            if (current == EMPTY) {
+                keys[slot] = key;
+                values[slot] = delta;
+                if (++size * 2 > keys.length) {
+                    rehash(keys.length << 1);
+                }
+                return delta;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Vacía el mapa conservando la capacidad reservada.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    /**
+     * Número de claves almacenadas (incluidas las que quedaron a 0).
+     */
+    public int size() {
+        return size;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        // Los ids de registro son consecutivos; dispersamos para evitar racimos
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
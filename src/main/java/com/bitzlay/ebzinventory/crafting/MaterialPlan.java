@@ -0,0 +1,239 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Plan de consumo de materiales: los pares slot/cantidad que hay que retirar de un
+ * contenedor para pagar una receta.
+ *
+ * El cálculo recorre los slots una sola vez y no modifica nada; {@link #apply} retira
+ * todo el plan o nada, y devuelve un {@link MaterialReceipt} con lo retirado exactamente.
+ * Los buffers se reutilizan entre crafteos, así que un plan solo es válido hasta el
+ * siguiente {@link #compute} del mismo hilo.
+ *
+ * El cálculo trabaja sobre ids numéricos de item y cantidades por slot: un contenedor se
+ * vuelca primero a esa forma. La misma lógica puede aplicarse a un inventario de ids sin
+ * {@link ItemStack} (con {@link #apply(int[], int[])}), que es lo que miden los benchmarks.
+ */
+public final class MaterialPlan {
+    private static final ThreadLocal<MaterialPlan> SCRATCH = ThreadLocal.withInitial(MaterialPlan::new);
+
+    private int[] slots = new int[InventorySnapshot.CRAFTING_SLOTS];
+    private int[] amounts = new int[InventorySnapshot.CRAFTING_SLOTS];
+    private int[] remaining = new int[8];
+    private int size;
+
+    // Volcado del contenedor: id y cantidad de cada slot (cantidad 0 = vacío)
+    private int[] slotIds = new int[InventorySnapshot.CRAFTING_SLOTS];
+    private int[] slotCounts = new int[InventorySnapshot.CRAFTING_SLOTS];
+
+    private InventoryRecipe recipe;
+    private int[] ingredientIds;
+    private int crafts;
+    private boolean complete;
+
+    public MaterialPlan() {
+    }
+
+    /**
+     * Plan reutilizable del hilo actual. Evita reservar buffers en cada crafteo.
+     */
+    public static MaterialPlan scratch() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * Calcula qué retirar de los primeros {@code slotCount} slots del contenedor para
+     * craftear {@code crafts} veces la receta. No modifica el contenedor.
+     *
+     * @return true si hay materiales suficientes para todo el plan
+     */
+    public boolean compute(Container container, int slotCount, InventoryRecipe recipe, int crafts) {
+        return compute(container, slotCount, recipe, crafts, null);
+    }
+
+    /**
+     * Como {@link #compute(Container, int, InventoryRecipe, int)}, pero retirando del
+     * contenedor solo {@code required[i]} unidades de cada ingrediente. Lo usan los pasos de
+     * una cadena de subcomponentes, cuyo resto llega de pasos anteriores.
+     *
+     * @param required Cantidad a retirar por ingrediente, o null para el coste completo
+     */
+    public boolean compute(Container container, int slotCount, InventoryRecipe recipe, int crafts, int[] required) {
+        int limit = Math.min(slotCount, container.getContainerSize());
+        if (slotIds.length < limit) {
+            slotIds = new int[limit];
+            slotCounts = new int[limit];
+        }
+        for (int slot = 0; slot < limit; slot++) {
+            ItemStack stack = container.getItem(slot);
+            boolean empty = stack.isEmpty();
+            slotIds[slot] = empty ? -1 : Item.getId(stack.getItem());
+            slotCounts[slot] = empty ? 0 : stack.getCount();
+        }
+
+        compute(slotIds, slotCounts, limit, recipe.getIngredientIds(), recipe.getIngredientAmounts(), crafts, required);
+        this.recipe = recipe;
+        return complete;
+    }
+
+    /**
+     * Calcula qué retirar de un inventario dado como id de item y cantidad por slot para
+     * craftear {@code crafts} veces una receta dada como ids y cantidades por unidad.
+     * No modifica el inventario. Un slot con cantidad 0 o menor se trata como vacío.
+     *
+     * @param required Cantidad a retirar por ingrediente, o null para el coste completo
+     * @return true si hay materiales suficientes para todo el plan
+     */
+    public boolean compute(int[] slotIds, int[] slotCounts, int slotCount,
+                           int[] ingredientIds, int[] ingredientAmounts, int crafts, int[] required) {
+        int ingredientCount = ingredientIds.length;
+        ensureCapacity(slotCount, ingredientCount);
+
+        this.recipe = null;
+        this.ingredientIds = ingredientIds;
+        this.crafts = crafts;
+        this.size = 0;
+
+        long outstanding = 0;
+        for (int i = 0; i < ingredientCount; i++) {
+            long amount = required != null ? required[i] : (long) ingredientAmounts[i] * crafts;
+            if (amount > Integer.MAX_VALUE || amount < 0) {
+                complete = false;
+                return false;
+            }
+            remaining[i] = (int) amount;
+            outstanding += amount;
+        }
+
+        for (int slot = 0; slot < slotCount && outstanding > 0; slot++) {
+            int count = slotCounts[slot];
+            if (count <= 0) continue;
+
+            int id = slotIds[slot];
+            for (int i = 0; i < ingredientCount; i++) {
+                if (remaining[i] > 0 && ingredientIds[i] == id) {
+                    int take = Math.min(remaining[i], count);
+                    slots[size] = slot;
+                    amounts[size] = take;
+                    size++;
+                    remaining[i] -= take;
+                    outstanding -= take;
+                    break;
+                }
+            }
+        }
+
+        complete = outstanding == 0;
+        return complete;
+    }
+
+    /**
+     * Indica si el último {@link #compute} encontró materiales suficientes.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Número de pares slot/cantidad del plan.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getSlot(int index) {
+        return slots[index];
+    }
+
+    public int getAmount(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Retira del contenedor todo lo planificado.
+     *
+     * Antes de tocar nada se comprueba que cada slot sigue teniendo el item y la cantidad
+     * previstos; si el contenedor cambió desde {@link #compute}, no se retira nada.
+     *
+     * @return Recibo con lo retirado, o null si el plan está incompleto u obsoleto
+     */
+    public MaterialReceipt apply(Container container) {
+        if (!complete || recipe == null) return null;
+
+        Item[] items = new Item[size];
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = container.getItem(slots[i]);
+            if (stack.isEmpty() || stack.getCount() < amounts[i]) return null;
+            items[i] = stack.getItem();
+            if (!isIngredient(items[i])) return null;
+        }
+
+        int[] takenSlots = new int[size];
+        int[] takenAmounts = new int[size];
+        CompoundTag[] tags = new CompoundTag[size];
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = container.getItem(slots[i]);
+            CompoundTag tag = stack.getTag();
+            takenSlots[i] = slots[i];
+            takenAmounts[i] = amounts[i];
+            tags[i] = tag != null ? tag.copy() : null;
+            stack.shrink(amounts[i]);
+        }
+        container.setChanged();
+
+        // Un plan aplicado no puede aplicarse dos veces
+        complete = false;
+        return new MaterialReceipt(recipe, crafts, takenSlots, items, takenAmounts, tags);
+    }
+
+    /**
+     * Retira lo planificado de un inventario de ids y cantidades, con las mismas
+     * comprobaciones que {@link #apply(Container)}.
+     *
+     * @return false si el plan está incompleto u obsoleto; entonces no se retira nada
+     */
+    public boolean apply(int[] slotIds, int[] slotCounts) {
+        if (!complete) return false;
+
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            if (slotCounts[slot] < amounts[i] || !isIngredient(slotIds[slot])) return false;
+        }
+        for (int i = 0; i < size; i++) {
+            slotCounts[slots[i]] -= amounts[i];
+        }
+
+        // Un plan aplicado no puede aplicarse dos veces
+        complete = false;
+        return true;
+    }
+
+    private boolean isIngredient(int itemId) {
+        for (int id : ingredientIds) {
+            if (id == itemId) return true;
+        }
+        return false;
+    }
+
+    private boolean isIngredient(Item item) {
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            if (recipe.getIngredientItem(i) == item) return true;
+        }
+        return false;
+    }
+
+    private void ensureCapacity(int slotCount, int ingredientCount) {
+        if (slots.length < slotCount) {
+            slots = new int[slotCount];
+            amounts = new int[slotCount];
+        }
+        if (remaining.length < ingredientCount) {
+            remaining = new int[ingredientCount];
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Registro exacto de los materiales retirados por un {@link MaterialPlan}.
+ *
+ * Guarda slot, item, cantidad y NBT de cada retirada, de modo que el reembolso devuelve
+ * lo que se tomó y no el coste nominal de la receta. Un recibo solo puede liquidarse una
+ * vez: tras reembolsarlo o marcarlo como consumido, las llamadas siguientes no hacen nada.
+ *
+ * En un lote las unidades se van consumiendo a medida que se entregan; el reembolso
+ * devuelve solo la parte de las unidades pendientes.
+ *
+ * En una cadena de subcomponentes, lo que un paso anterior fabrica para este se anota como
+ * crédito ({@link #credit}): no sale de ningún slot, pero se reembolsa igual que el resto.
+ */
+public final class MaterialReceipt {
+    /** Slot de las cantidades acreditadas por pasos anteriores de una cadena */
+    private static final int CREDIT_SLOT = -1;
+
+    private final InventoryRecipe recipe;
+    private final int crafts;
+    private int[] slots;
+    private Item[] items;
+    private int[] amounts;
+    private CompoundTag[] tags;
+    private int consumedCrafts;
+    private boolean settled;
+
+    MaterialReceipt(InventoryRecipe recipe, int crafts, int[] slots, Item[] items, int[] amounts, CompoundTag[] tags) {
+        this.recipe = recipe;
+        this.crafts = crafts;
+        this.slots = slots;
+        this.items = items;
+        this.amounts = amounts;
+        this.tags = tags;
+    }
+
+    public InventoryRecipe getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * Número de unidades de la receta pagadas con este recibo.
+     */
+    public int getCrafts() {
+        return crafts;
+    }
+
+    /**
+     * Indica si el recibo ya se reembolsó o se dio por consumido.
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    /**
+     * Unidades ya entregadas cuyos materiales no se reembolsarán.
+     */
+    public int getConsumedCrafts() {
+        return consumedCrafts;
+    }
+
+    /**
+     * Marca los materiales como gastados (el crafteo terminó); ya no podrán reembolsarse.
+     */
+    public void markConsumed() {
+        markConsumed(crafts);
+    }
+
+    /**
+     * Marca como gastados los materiales de {@code count} unidades del lote.
+     */
+    public void markConsumed(int count) {
+        if (settled) return;
+        consumedCrafts = Math.min(crafts, consumedCrafts + Math.max(0, count));
+        if (consumedCrafts >= crafts) {
+            settled = true;
+        }
+    }
+
+    /**
+     * Anota materiales que no salieron del inventario sino de un paso anterior de la cadena.
+     * Se reembolsan igual que los retirados, añadiéndolos al inventario.
+     */
+    void credit(Item item, int amount, CompoundTag tag) {
+        if (settled || amount <= 0) return;
+
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == CREDIT_SLOT && items[i] == item && Objects.equals(tags[i], tag)) {
+                amounts[i] += amount;
+                return;
+            }
+        }
+        int size = slots.length;
+        slots = Arrays.copyOf(slots, size + 1);
+        items = Arrays.copyOf(items, size + 1);
+        amounts = Arrays.copyOf(amounts, size + 1);
+        tags = Arrays.copyOf(tags, size + 1);
+        slots[size] = CREDIT_SLOT;
+        items[size] = item;
+        amounts[size] = amount;
+        tags[size] = tag != null ? tag.copy() : null;
+    }
+
+    /**
+     * Devuelve los materiales a los slots de los que salieron, siempre que estén vacíos o
+     * contengan el mismo item con el mismo NBT.
+     *
+     * @param container Contenedor original
+     * @return Lo que no cupo en su slot original (vacío si todo volvió a su sitio)
+     */
+    public List<ItemStack> restore(Container container) {
+        if (settled) return Collections.emptyList();
+        settled = true;
+
+        int[] refunds = refundAmounts();
+        List<ItemStack> leftovers = null;
+        for (int i = 0; i < slots.length; i++) {
+            if (refunds[i] <= 0) continue;
+            ItemStack stack = new ItemStack(items[i], refunds[i]);
+            if (tags[i] != null) {
+                stack.setTag(tags[i].copy());
+            }
+
+            if (slots[i] >= 0 && slots[i] < container.getContainerSize()) {
+                ItemStack current = container.getItem(slots[i]);
+                if (current.isEmpty()) {
+                    container.setItem(slots[i], stack);
+                    continue;
+                }
+                if (ItemStack.isSameItemSameTags(current, stack)) {
+                    int room = Math.min(current.getMaxStackSize(), container.getMaxStackSize()) - current.getCount();
+                    int moved = Math.max(0, Math.min(room, stack.getCount()));
+                    current.grow(moved);
+                    stack.shrink(moved);
+                    if (stack.isEmpty()) continue;
+                }
+            }
+
+            if (leftovers == null) {
+                leftovers = new ArrayList<>();
+            }
+            leftovers.add(stack);
+        }
+        container.setChanged();
+        return leftovers != null ? leftovers : Collections.emptyList();
+    }
+
+    /**
+     * Cantidad a devolver de cada retirada. Sin unidades consumidas es todo; en un lote
+     * empezado, por cada item se devuelve la parte proporcional a las unidades pendientes,
+     * empezando por las últimas retiradas.
+     */
+    private int[] refundAmounts() {
+        if (consumedCrafts == 0) return amounts;
+
+        int pendingCrafts = crafts - consumedCrafts;
+        int[] refunds = new int[amounts.length];
+        boolean[] done = new boolean[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            if (done[i]) continue;
+
+            long total = 0;
+            for (int j = i; j < amounts.length; j++) {
+                if (items[j] == items[i]) total += amounts[j];
+            }
+            // El total de cada item es siempre múltiplo de las unidades pagadas
+            long remaining = total * pendingCrafts / crafts;
+            for (int j = amounts.length - 1; j >= i; j--) {
+                if (items[j] != items[i]) continue;
+                done[j] = true;
+                int give = (int) Math.min(amounts[j], remaining);
+                refunds[j] = give;
+                remaining -= give;
+            }
+        }
+        return refunds;
+    }
+
+    /**
+     * Guarda el recibo en NBT. Los items se guardan por nombre de registro y el NBT de cada
+     * retirada solo si lo tenía.
+     */
+    public CompoundTag save() {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("crafts", crafts);
+        tag.putInt("consumed", consumedCrafts);
+        tag.putBoolean("settled", settled);
+        tag.putIntArray("slots", slots);
+        tag.putIntArray("amounts", amounts);
+
+        ListTag itemList = new ListTag();
+        ListTag nbtList = new ListTag();
+        for (int i = 0; i < items.length; i++) {
+            itemList.add(StringTag.valueOf(String.valueOf(ForgeRegistries.ITEMS.getKey(items[i]))));
+            if (tags[i] != null) {
+                CompoundTag entry = new CompoundTag();
+                entry.putInt("i", i);
+                entry.put("tag", tags[i].copy());
+                nbtList.add(entry);
+            }
+        }
+        tag.put("items", itemList);
+        if (!nbtList.isEmpty()) {
+            tag.put("nbt", nbtList);
+        }
+        return tag;
+    }
+
+    /**
+     * Reconstruye un recibo guardado con {@link #save()}. Las retiradas de items que ya no
+     * existen en el registro se descartan.
+     *
+     * @param tag    Datos guardados
+     * @param recipe Receta a la que pertenece (puede ser null si ya no existe)
+     */
+    public static MaterialReceipt load(CompoundTag tag, InventoryRecipe recipe) {
+        int[] slots = tag.getIntArray("slots");
+        int[] amounts = tag.getIntArray("amounts");
+        ListTag itemList = tag.getList("items", Tag.TAG_STRING);
+        int count = Math.min(slots.length, Math.min(amounts.length, itemList.size()));
+
+        CompoundTag[] savedTags = new CompoundTag[count];
+        ListTag nbtList = tag.getList("nbt", Tag.TAG_COMPOUND);
+        for (int i = 0; i < nbtList.size(); i++) {
+            CompoundTag entry = nbtList.getCompound(i);
+            int index = entry.getInt("i");
+            if (index >= 0 && index < count) {
+                savedTags[index] = entry.getCompound("tag");
+            }
+        }
+
+        int kept = 0;
+        int[] keptSlots = new int[count];
+        Item[] keptItems = new Item[count];
+        int[] keptAmounts = new int[count];
+        CompoundTag[] keptTags = new CompoundTag[count];
+        for (int i = 0; i < count; i++) {
+            ResourceLocation location = ResourceLocation.tryParse(itemList.getString(i));
+            if (location == null || !ForgeRegistries.ITEMS.containsKey(location)) continue;
+            keptSlots[kept] = slots[i];
+            keptItems[kept] = ForgeRegistries.ITEMS.getValue(location);
+            keptAmounts[kept] = amounts[i];
+            keptTags[kept] = savedTags[i];
+            kept++;
+        }
+
+        MaterialReceipt receipt = new MaterialReceipt(recipe, tag.getInt("crafts"),
+                Arrays.copyOf(keptSlots, kept),
+                Arrays.copyOf(keptItems, kept),
+                Arrays.copyOf(keptAmounts, kept),
+                Arrays.copyOf(keptTags, kept));
+        receipt.consumedCrafts = Math.max(0, Math.min(receipt.crafts, tag.getInt("consumed")));
+        receipt.settled = tag.getBoolean("settled");
+        return receipt;
+    }
+
+    /**
+     * Reembolsa los materiales al jugador. Lo que no cabe en su slot original se añade al
+     * inventario y, si tampoco cabe, se suelta al suelo.
+     */
+    public void refund(Player player) {
+        if (player == null || settled) return;
+
+        for (ItemStack leftover : restore(player.getInventory())) {
+            if (!player.getInventory().add(leftover)) {
+                player.drop(leftover, false);
+            }
+        }
+    }
+}
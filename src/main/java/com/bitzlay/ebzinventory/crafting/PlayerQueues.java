@@ -0,0 +1,79 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Colas de crafteo por jugador con un único hilo propietario.
+ *
+ * Las listas modificables solo se tocan desde el hilo del servidor. Tras cada cambio el
+ * propietario llama a {@link #publish(UUID)}, que deja una copia inmutable en un mapa
+ * concurrente: cualquier otro hilo lee esas copias sin bloqueos y sin ver nunca una lista
+ * a medio modificar. Los campos de progreso de cada entrada pueden leerse con un tick de
+ * retraso, lo que no afecta a la consistencia de la cola.
+ */
+final class PlayerQueues {
+    // Hilo del servidor: listas de trabajo, solo colas no vacías
+    private final Map<UUID, List<CraftingQueueItem>> owned = new HashMap<>();
+
+    // Cualquier hilo: copias inmutables publicadas
+    private final Map<UUID, List<CraftingQueueItem>> published = new ConcurrentHashMap<>();
+
+    /**
+     * Lista de trabajo del jugador, o null si no tiene cola. Solo hilo del servidor.
+     */
+    List<CraftingQueueItem> get(UUID playerId) {
+        return owned.get(playerId);
+    }
+
+    /**
+     * Lista de trabajo del jugador, creándola si no existe. Solo hilo del servidor.
+     */
+    List<CraftingQueueItem> getOrCreate(UUID playerId) {
+        return owned.computeIfAbsent(playerId, k -> new ArrayList<>());
+    }
+
+    void put(UUID playerId, List<CraftingQueueItem> queue) {
+        owned.put(playerId, queue);
+        publish(playerId);
+    }
+
+    /**
+     * Saca la cola de memoria (desconexión o vaciado). Solo hilo del servidor.
+     */
+    List<CraftingQueueItem> remove(UUID playerId) {
+        published.remove(playerId);
+        return owned.remove(playerId);
+    }
+
+    /**
+     * Publica el estado actual de la cola del jugador; una cola vacía se desaloja.
+     */
+    void publish(UUID playerId) {
+        List<CraftingQueueItem> queue = owned.get(playerId);
+        if (queue == null || queue.isEmpty()) {
+            owned.remove(playerId);
+            published.remove(playerId);
+        } else {
+            published.put(playerId, List.copyOf(queue));
+        }
+    }
+
+    /**
+     * Copia inmutable de la cola. Segura desde cualquier hilo; sin cola no reserva memoria.
+     */
+    List<CraftingQueueItem> snapshot(UUID playerId) {
+        List<CraftingQueueItem> queue = published.get(playerId);
+        return queue != null ? queue : Collections.emptyList();
+    }
+
+    void clear() {
+        owned.clear();
+        published.clear();
+    }
+}
@@ -0,0 +1,133 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import com.bitzlay.ebzinventory.network.ModNetwork;
+import com.bitzlay.ebzinventory.network.PlayerStatusSync;
+import com.bitzlay.ebzinventory.network.QueueDeltaPacket;
+import com.bitzlay.ebzinventory.network.QueueSyncPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Recuerda qué ha visto cada cliente de su cola y le envía solo las diferencias.
+ *
+ * Tras cada cambio se compara la cola con la última enviada (por identidad de entrada) y
+ * se generan las operaciones de {@link QueueDeltaPacket}: quitar, añadir, mover y cambios
+ * de estado de cada entrada. Solo hilo del servidor.
+ */
+final class QueueSyncTracker {
+    private final Map<UUID, List<CraftingQueueItem>> sentQueues = new HashMap<>();
+    private final Map<UUID, Integer> sentLanes = new HashMap<>();
+
+    /**
+     * Envía la cola completa (al conectarse o si el cliente la pide).
+     */
+    void sendFull(ServerPlayer player, List<CraftingQueueItem> queue, int lanes, long tick) {
+        for (CraftingQueueItem item : queue) {
+            markSent(item);
+        }
+        remember(player.getUUID(), queue, lanes);
+        // La cola completa ya incluye los cambios aún no enviados de este tick
+        PlayerStatusSync.discardQueueDelta(player);
+        ModNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player),
+                QueueSyncPacket.of(tick, lanes, queue));
+    }
+
+    /**
+     * Envía los cambios respecto a lo último enviado, junto con el resto del estado del
+     * jugador al final del tick. No envía nada si no hay cambios.
+     */
+    void sendChanges(ServerPlayer player, List<CraftingQueueItem> queue, int lanes, long tick) {
+        UUID playerId = player.getUUID();
+        List<CraftingQueueItem> working = new ArrayList<>(
+                sentQueues.getOrDefault(playerId, Collections.emptyList()));
+        List<QueueDeltaPacket.Op> ops = new ArrayList<>();
+
+        // 1. Entradas que ya no están, de atrás hacia delante para no mover las posiciones
+        for (int i = working.size() - 1; i >= 0; i--) {
+            CraftingQueueItem item = working.get(i);
+            if (!queue.contains(item)) {
+                ops.add(item.isFinished() ? QueueDeltaPacket.Op.complete(i) : QueueDeltaPacket.Op.cancel(i));
+                working.remove(i);
+            }
+        }
+
+        // 2. Entradas nuevas, al final
+        for (CraftingQueueItem item : queue) {
+            if (!working.contains(item)) {
+                ops.add(QueueDeltaPacket.Op.enqueue(QueueSyncPacket.Entry.of(item)));
+                markSent(item);
+                working.add(item);
+            }
+        }
+
+        // 3. Orden
+        for (int target = 0; target < queue.size(); target++) {
+            CraftingQueueItem item = queue.get(target);
+            if (working.get(target) != item) {
+                int from = working.indexOf(item);
+                ops.add(QueueDeltaPacket.Op.reorder(from, target));
+                working.add(target, working.remove(from));
+            }
+        }
+
+        // 4. Estado de cada entrada
+        for (int i = 0; i < queue.size(); i++) {
+            CraftingQueueItem item = queue.get(i);
+            if (item.getCompletedCrafts() != item.sentCompletedCrafts) {
+                ops.add(QueueDeltaPacket.Op.step(i, item.getCompletedCrafts()));
+                // El cliente deja la entrada en espera desde cero tras un paso
+                item.sentStartTick = CraftingQueueItem.NOT_STARTED;
+                item.sentElapsedTicks = 0;
+            }
+            if (item.isPaused()) {
+                if (item.sentStartTick != CraftingQueueItem.NOT_STARTED
+                        || item.getElapsedTicks() != item.sentElapsedTicks) {
+                    ops.add(QueueDeltaPacket.Op.pause(i, item.getElapsedTicks()));
+                }
+            } else if (item.getStartTick() != item.sentStartTick) {
+                ops.add(QueueDeltaPacket.Op.start(i, item.getStartTick()));
+            }
+            markSent(item);
+        }
+
+        Integer previousLanes = sentLanes.get(playerId);
+        if (previousLanes == null || previousLanes != lanes) {
+            ops.add(QueueDeltaPacket.Op.lanes(lanes));
+        }
+
+        remember(playerId, queue, lanes);
+        PlayerStatusSync.queueQueueDelta(player, tick, ops);
+    }
+
+    void forget(UUID playerId) {
+        sentQueues.remove(playerId);
+        sentLanes.remove(playerId);
+    }
+
+    void clear() {
+        sentQueues.clear();
+        sentLanes.clear();
+    }
+
+    private void remember(UUID playerId, List<CraftingQueueItem> queue, int lanes) {
+        if (queue.isEmpty()) {
+            sentQueues.remove(playerId);
+        } else {
+            sentQueues.put(playerId, List.copyOf(queue));
+        }
+        sentLanes.put(playerId, lanes);
+    }
+
+    private static void markSent(CraftingQueueItem item) {
+        item.sentStartTick = item.getStartTick();
+        item.sentElapsedTicks = item.getElapsedTicks();
+        item.sentCompletedCrafts = item.getCompletedCrafts();
+    }
+}
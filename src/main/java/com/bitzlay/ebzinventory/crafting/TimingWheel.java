@@ -0,0 +1,205 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporización jerárquica indexada por tick.
+ *
+ * Cuatro niveles de 64 casillas: el nivel 0 tiene resolución de 1 tick, y cada nivel
+ * superior cubre 64 veces más tiempo. Avanzar un tick solo recorre la casilla que vence
+ * (y, cada 64 ticks, redistribuye una casilla del nivel superior), de modo que el coste
+ * depende de los temporizadores que vencen y no de cuántos hay programados. Programar,
+ * cancelar y reprogramar son O(1) a través del {@link Timer} devuelto.
+ *
+ * No es segura entre hilos: se usa solo desde el hilo del servidor.
+ */
+public final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    /** Distancia máxima representable; más allá se reprograma al redistribuir */
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * Temporizador programado en la rueda. Sirve de referencia para cancelarlo o moverlo.
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private Timer<T> bucket;
+
+        private Timer(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isScheduled() {
+            return bucket != null;
+        }
+    }
+
+    // Cada casilla es una lista doblemente enlazada circular con un nodo centinela
+    private final Timer<T>[][] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel() {
+        buckets = new Timer[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timer<T> sentinel = new Timer<>(null);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                buckets[level][slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Programa un valor para el tick indicado. Un tick ya pasado vence en el siguiente avance.
+     */
+    public Timer<T> schedule(T value, long deadline) {
+        Timer<T> timer = new Timer<>(value);
+        insert(timer, deadline, currentTick + 1);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Mueve un temporizador a otro tick; si estaba cancelado vuelve a programarse.
+     */
+    public void reschedule(Timer<T> timer, long deadline) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        insert(timer, deadline, currentTick + 1);
+    }
+
+    /**
+     * Cancela un temporizador. No hace nada si ya venció o estaba cancelado.
+     */
+    public void cancel(Timer<T> timer) {
+        if (timer != null && timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta {@code tick} (incluido) entregando los valores vencidos en orden.
+     * El consumidor puede programar o cancelar temporizadores durante la llamada.
+     */
+    public void advanceTo(long tick, Consumer<T> expired) {
+        if (size == 0) {
+            // Sin temporizadores el cursor puede saltar directamente
+            currentTick = Math.max(currentTick, tick);
+            return;
+        }
+
+        while (currentTick < tick) {
+            currentTick++;
+            cascade();
+            Timer<T> sentinel = buckets[0][(int) (currentTick & MASK)];
+            while (sentinel.next != sentinel) {
+                Timer<T> timer = sentinel.next;
+                unlink(timer);
+                size--;
+                expired.accept(timer.value);
+            }
+            if (size == 0) {
+                currentTick = tick;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Descarta todos los temporizadores y sitúa el cursor en el tick indicado.
+     */
+    public void clear(long tick) {
+        for (Timer<T>[] level : buckets) {
+            for (Timer<T> sentinel : level) {
+                while (sentinel.next != sentinel) {
+                    unlink(sentinel.next);
+                }
+            }
+        }
+        size = 0;
+        currentTick = tick;
+    }
+
+    /**
+     * Al empezar una vuelta del nivel 0 baja a niveles inferiores la casilla correspondiente de
+     * cada nivel superior cuya vuelta también empieza.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) return;
+
+            Timer<T> sentinel = buckets[level][(int) ((currentTick >>> (SLOT_BITS * level)) & MASK)];
+            while (sentinel.next != sentinel) {
+                Timer<T> timer = sentinel.next;
+                unlink(timer);
+                // La casilla del tick actual aún no se ha procesado: lo que vence ahora sale ya
+                insert(timer, timer.deadline, currentTick);
+            }
+        }
+    }
+
+    /**
+     * @param minDue Primer tick cuya casilla aún se procesará; al programar es el siguiente,
+     *               porque la casilla actual ya se vació, y al redistribuir es el actual
+     */
+    private void insert(Timer<T> timer, long deadline, long minDue) {
+        long due = Math.max(deadline, minDue);
+        timer.deadline = deadline;
+
+        long delta = due - currentTick;
+        long slotTick = due;
+        if (delta >= MAX_SPAN) {
+            // Fuera de alcance: se aparca en el último nivel y se recoloca al redistribuir
+            slotTick = currentTick + MAX_SPAN - 1;
+            delta = MAX_SPAN - 1;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && (delta >>> (SLOT_BITS * (level + 1))) != 0) {
+            level++;
+        }
+
+        Timer<T> sentinel = buckets[level][(int) ((slotTick >>> (SLOT_BITS * level)) & MASK)];
+        timer.bucket = sentinel;
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = null;
+    }
+}
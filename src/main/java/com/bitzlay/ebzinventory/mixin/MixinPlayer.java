@@ -18,17 +18,12 @@ public abstract class MixinPlayer {
     @Inject(method = "eat", at = @At("HEAD"))
     public void onEatDrink(Level level, ItemStack item, CallbackInfoReturnable<ItemStack> cir) {
         Player player = (Player) ((Object) this);
-        com.bitzlay.ebzinventory.EbzInventory.LOGGER.info("MixinPlayer: Jugador {} consumiendo item {}",
-                player.getName().getString(), item.getDisplayName().getString());
 
         // Verificamos si el item tiene un valor de hidratación
         float hydrationValue = com.bitzlay.ebzinventory.config.HydrationConfig.getHydrationValue(item.getItem());
 
         if (hydrationValue > 0) {
-            com.bitzlay.ebzinventory.EbzInventory.LOGGER.info("MixinPlayer: Añadiendo hidratación {} para {}",
-                    hydrationValue, player.getName().getString());
-
-            // Añadir hidratación directamente
+            // Añadir hidratación directamente; el cambio queda en la traza del jugador
             PlayerHydrationManager.addHydration(player, hydrationValue);
         }
     }
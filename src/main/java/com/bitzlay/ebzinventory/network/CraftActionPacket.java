@@ -0,0 +1,87 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.crafting.CraftingHelper;
+import com.bitzlay.ebzinventory.crafting.CraftingQueueHandler;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Cliente → servidor: acción sobre la cola de crafteo del jugador.
+ * El servidor valida todo; el cliente solo ve el resultado en el siguiente {@link QueueSyncPacket}.
+ */
+public class CraftActionPacket {
+    public static final byte START = 0;
+    public static final byte CANCEL = 1;
+    public static final byte CLEAR = 2;
+    /** Pide la cola completa cuando la copia del cliente no encaja con un cambio recibido */
+    public static final byte SYNC = 3;
+
+    private final byte action;
+    private final String recipeId;
+    // Unidades para START (CraftingHelper.CRAFT_MAX = máximo) o posición para CANCEL
+    private final int index;
+
+    private CraftActionPacket(byte action, String recipeId, int index) {
+        this.action = action;
+        this.recipeId = recipeId;
+        this.index = index;
+    }
+
+    public static CraftActionPacket start(String recipeId, int count) {
+        return new CraftActionPacket(START, recipeId, count);
+    }
+
+    public static CraftActionPacket cancel(int index) {
+        return new CraftActionPacket(CANCEL, "", index);
+    }
+
+    public static CraftActionPacket clear() {
+        return new CraftActionPacket(CLEAR, "", 0);
+    }
+
+    public static CraftActionPacket sync() {
+        return new CraftActionPacket(SYNC, "", 0);
+    }
+
+    public static void encode(CraftActionPacket msg, FriendlyByteBuf buf) {
+        buf.writeByte(msg.action);
+        if (msg.action == START) {
+            buf.writeUtf(msg.recipeId);
+        }
+        if (msg.action == START || msg.action == CANCEL) {
+            buf.writeVarInt(msg.index);
+        }
+    }
+
+    public static CraftActionPacket decode(FriendlyByteBuf buf) {
+        byte action = buf.readByte();
+        String recipeId = action == START ? buf.readUtf() : "";
+        int index = action == START || action == CANCEL ? buf.readVarInt() : 0;
+        return new CraftActionPacket(action, recipeId, index);
+    }
+
+    public static void handle(CraftActionPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ServerPlayer sender = ctx.get().getSender();
+        ctx.get().enqueueWork(() -> {
+            if (sender == null) return;
+            switch (msg.action) {
+                case START -> {
+                    InventoryRecipe recipe = InventoryRecipeManager.getRecipe(msg.recipeId);
+                    if (recipe != null) {
+                        CraftingHelper.startCrafting(sender, recipe, msg.index);
+                    }
+                }
+                case CANCEL -> CraftingQueueHandler.cancelItem(sender, msg.index);
+                case CLEAR -> CraftingQueueHandler.clearQueue(sender);
+                case SYNC -> CraftingQueueHandler.resync(sender);
+                default -> { }
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
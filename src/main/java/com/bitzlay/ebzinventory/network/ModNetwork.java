@@ -0,0 +1,63 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.NetworkRegistry;
+import net.minecraftforge.network.simple.SimpleChannel;
+
+import java.util.Optional;
+
+/**
+ * Canal de red del mod y registro de todos sus paquetes.
+ */
+public class ModNetwork {
+    // Se incrementa cada vez que cambia el conjunto o el formato de los paquetes
+    private static final String PROTOCOL_VERSION = "8";
+
+    public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
+            new ResourceLocation(EbzInventory.MOD_ID, "main"),
+            () -> PROTOCOL_VERSION,
+            PROTOCOL_VERSION::equals,
+            PROTOCOL_VERSION::equals
+    );
+
+    private static int nextId = 0;
+
+    /**
+     * Registra los paquetes. Debe llamarse una sola vez durante la inicialización del mod.
+     */
+    public static void register() {
+        CHANNEL.registerMessage(nextId++, PlayerStatusPacket.class,
+                PlayerStatusPacket::encode,
+                PlayerStatusPacket::decode,
+                PlayerStatusPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        CHANNEL.registerMessage(nextId++, RecipeHashPacket.class,
+                RecipeHashPacket::encode,
+                RecipeHashPacket::decode,
+                RecipeHashPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        CHANNEL.registerMessage(nextId++, RecipeRequestPacket.class,
+                RecipeRequestPacket::encode,
+                RecipeRequestPacket::decode,
+                RecipeRequestPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_SERVER));
+        CHANNEL.registerMessage(nextId++, RecipeSyncPacket.class,
+                RecipeSyncPacket::encode,
+                RecipeSyncPacket::decode,
+                RecipeSyncPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        CHANNEL.registerMessage(nextId++, CraftActionPacket.class,
+                CraftActionPacket::encode,
+                CraftActionPacket::decode,
+                CraftActionPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_SERVER));
+        CHANNEL.registerMessage(nextId++, QueueSyncPacket.class,
+                QueueSyncPacket::encode,
+                QueueSyncPacket::decode,
+                QueueSyncPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        EbzInventory.LOGGER.info("Registrados {} paquetes de red", nextId);
+    }
+}
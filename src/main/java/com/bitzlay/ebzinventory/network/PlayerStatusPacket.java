@@ -0,0 +1,111 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.client.gui.model.ClientCraftingQueue;
+import com.bitzlay.ebzinventory.player.PlayerHydrationManager;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Servidor → cliente: estado del propio jugador que cambió desde el último envío.
+ *
+ * Formato: versión (1 byte), máscara de campos (varint) y solo los campos marcados, en el
+ * orden de sus bits. Siempre va dirigido al jugador al que pertenece el estado, así que no
+ * lleva UUID. {@link PlayerStatusSync} junta todo lo que cambia durante un tick en un único
+ * paquete por jugador.
+ */
+public class PlayerStatusPacket {
+    /** Versión del formato; un cliente con otra versión descarta el contenido */
+    public static final byte FORMAT_VERSION = 1;
+
+    /** Hidratación en centésimas de punto (varint) */
+    public static final int HYDRATION = 1;
+    /** Cambios de la cola de crafteo ({@link QueueDeltaPacket}) */
+    public static final int QUEUE = 1 << 1;
+
+    /** Unidades por punto de hidratación en el valor enviado */
+    private static final float HYDRATION_SCALE = 100.0F;
+
+    private final int fields;
+    private final int quantizedHydration;
+    private final QueueDeltaPacket queueDelta;
+
+    PlayerStatusPacket(int fields, int quantizedHydration, QueueDeltaPacket queueDelta) {
+        this.fields = fields;
+        this.quantizedHydration = quantizedHydration;
+        this.queueDelta = queueDelta;
+    }
+
+    /**
+     * Cuantiza la hidratación a centésimas. Nunca negativo.
+     */
+    public static int quantizeHydration(float level) {
+        if (Float.isNaN(level) || level <= 0) return 0;
+        return Math.round(level * HYDRATION_SCALE);
+    }
+
+    public static float dequantizeHydration(int quantized) {
+        return quantized / HYDRATION_SCALE;
+    }
+
+    public boolean has(int field) { return (fields & field) != 0; }
+    public float getHydrationLevel() { return dequantizeHydration(quantizedHydration); }
+    public QueueDeltaPacket getQueueDelta() { return queueDelta; }
+
+    public static void encode(PlayerStatusPacket msg, FriendlyByteBuf buf) {
+        buf.writeByte(FORMAT_VERSION);
+        buf.writeVarInt(msg.fields);
+        if (msg.has(HYDRATION)) {
+            buf.writeVarInt(msg.quantizedHydration);
+        }
+        if (msg.has(QUEUE)) {
+            QueueDeltaPacket.encode(msg.queueDelta, buf);
+        }
+    }
+
+    public static PlayerStatusPacket decode(FriendlyByteBuf buf) {
+        byte version = buf.readByte();
+        if (version != FORMAT_VERSION) {
+            // Campos desconocidos: no se puede saber dónde acaban, se descarta el resto
+            EbzInventory.LOGGER.debug("Paquete de estado con versión {} (esperada {}); se ignora",
+                    version, FORMAT_VERSION);
+            buf.skipBytes(buf.readableBytes());
+            return new PlayerStatusPacket(0, 0, null);
+        }
+
+        int fields = buf.readVarInt();
+        int hydration = (fields & HYDRATION) != 0 ? buf.readVarInt() : 0;
+        QueueDeltaPacket queueDelta = (fields & QUEUE) != 0 ? QueueDeltaPacket.decode(buf) : null;
+        return new PlayerStatusPacket(fields, hydration, queueDelta);
+    }
+
+    public static void handle(PlayerStatusPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            // Solo ejecutamos en el lado del cliente
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> handlePacket(msg));
+        });
+        ctx.get().setPacketHandled(true);
+    }
+
+    /**
+     * Implementación del manejo del paquete en el cliente.
+     */
+    private static void handlePacket(PlayerStatusPacket msg) {
+        if (msg.has(HYDRATION)) {
+            Player localPlayer = Minecraft.getInstance().player;
+            if (localPlayer != null) {
+                PlayerHydrationManager.getHydrationData(localPlayer).ifPresent(hydrationData ->
+                        hydrationData.setHydrationLevel(msg.getHydrationLevel()));
+            }
+        }
+        if (msg.has(QUEUE)) {
+            ClientCraftingQueue.onDelta(msg.queueDelta);
+        }
+    }
+}
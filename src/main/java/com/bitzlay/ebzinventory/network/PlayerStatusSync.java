@@ -0,0 +1,166 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.capability.IHydration;
+import com.bitzlay.ebzinventory.config.HydrationConfig;
+import com.bitzlay.ebzinventory.player.PlayerHydrationManager;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Envío del estado de cada jugador a su cliente con {@link PlayerStatusPacket}.
+ *
+ * Los cambios no se envían al momento: se acumulan por jugador y se mandan juntos al final
+ * del tick del servidor, un paquete por jugador como mucho. Dentro de un tick la
+ * hidratación se queda con el último valor y los cambios de cola se concatenan en orden,
+ * que es como los aplica el cliente. Solo hilo del servidor.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public class PlayerStatusSync {
+    private static final Map<UUID, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * Estado pendiente de envío de un jugador.
+     */
+    private static final class Pending {
+        final ServerPlayer player;
+        int fields;
+        int hydration;
+        long queueTick;
+        List<QueueDeltaPacket.Op> queueOps;
+
+        Pending(ServerPlayer player) {
+            this.player = player;
+        }
+    }
+
+    private PlayerStatusSync() {
+    }
+
+    /**
+     * Envía la hidratación aunque no haya cambiado. Para momentos en que el cliente puede
+     * haber perdido el valor: inicio de sesión, reaparición, cambio de dimensión y el envío
+     * de mantenimiento.
+     */
+    public static void sendHydration(ServerPlayer player) {
+        if (player == null) return;
+        PlayerHydrationManager.getHydrationData(player).ifPresent(hydrationData -> {
+            hydrationData.markDirty();
+            queueHydration(player, hydrationData);
+        });
+    }
+
+    /**
+     * Envía la hidratación solo si cambió más que el umbral configurado desde el último envío.
+     */
+    public static void syncHydrationIfChanged(ServerPlayer player) {
+        if (player == null) return;
+        PlayerHydrationManager.getHydrationData(player).ifPresent(hydrationData -> {
+            if (hydrationData.needsSync(HydrationConfig.SYNC_EPSILON.get().floatValue())) {
+                queueHydration(player, hydrationData);
+            }
+        });
+    }
+
+    private static void queueHydration(ServerPlayer player, IHydration hydrationData) {
+        int quantized = PlayerStatusPacket.quantizeHydration(hydrationData.getHydrationLevel());
+        Pending state = pendingFor(player);
+        state.fields |= PlayerStatusPacket.HYDRATION;
+        state.hydration = quantized;
+        hydrationData.markSynced(PlayerStatusPacket.dequantizeHydration(quantized));
+    }
+
+    /**
+     * Añade cambios de cola al envío del tick. {@code ops} debe partir del estado que deja
+     * el último cambio ya añadido.
+     */
+    public static void queueQueueDelta(ServerPlayer player, long serverTick, List<QueueDeltaPacket.Op> ops) {
+        if (ops.isEmpty()) return;
+        Pending state = pendingFor(player);
+        if (state.queueOps == null) {
+            state.queueOps = new ArrayList<>(ops);
+        } else {
+            state.queueOps.addAll(ops);
+        }
+        state.queueTick = serverTick;
+        state.fields |= PlayerStatusPacket.QUEUE;
+    }
+
+    /**
+     * Descarta los cambios de cola pendientes; se llama al enviar la cola completa, que ya
+     * los incluye.
+     */
+    public static void discardQueueDelta(ServerPlayer player) {
+        Pending state = pending.get(player.getUUID());
+        if (state != null) {
+            state.queueOps = null;
+            state.fields &= ~PlayerStatusPacket.QUEUE;
+        }
+    }
+
+    private static Pending pendingFor(ServerPlayer player) {
+        Pending state = pending.get(player.getUUID());
+        if (state == null || state.player != player) {
+            // Un jugador nuevo tras reaparecer sustituye al anterior; lo pendiente sigue valiendo
+            Pending replacement = new Pending(player);
+            if (state != null) {
+                replacement.fields = state.fields;
+                replacement.hydration = state.hydration;
+                replacement.queueTick = state.queueTick;
+                replacement.queueOps = state.queueOps;
+            }
+            state = replacement;
+            pending.put(player.getUUID(), state);
+        }
+        return state;
+    }
+
+    /**
+     * Envía lo acumulado durante el tick. Prioridad mínima para ir detrás del resto de
+     * tareas de fin de tick, que pueden añadir cambios.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || pending.isEmpty()) return;
+        flush();
+    }
+
+    private static void flush() {
+        for (Pending state : pending.values()) {
+            if (state.fields == 0 || state.player.hasDisconnected()) continue;
+            QueueDeltaPacket queueDelta = (state.fields & PlayerStatusPacket.QUEUE) != 0
+                    ? new QueueDeltaPacket(state.queueTick, state.queueOps)
+                    : null;
+            PlayerStatusPacket packet = new PlayerStatusPacket(state.fields, state.hydration, queueDelta);
+            try {
+                ModNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> state.player), packet);
+            } catch (Exception e) {
+                EbzInventory.LOGGER.error("[SERVER] Error al enviar estado a {}",
+                        state.player.getName().getString(), e);
+            }
+        }
+        pending.clear();
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        pending.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        pending.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package com.bitzlay.ebzinventory.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servidor → cliente: cambios en la cola de crafteo desde el último envío. Viaja dentro de
+ * {@link PlayerStatusPacket} junto con el resto del estado del jugador.
+ *
+ * Cada operación ocupa unos pocos bytes (tipo, posición y un valor en varint) y se aplica
+ * en orden sobre la copia del cliente. Las posiciones se refieren a la cola tal como queda
+ * tras las operaciones anteriores del mismo paquete.
+ */
+public class QueueDeltaPacket {
+    /** Nueva entrada al final de la cola */
+    public static final byte ENQUEUE = 0;
+    /** La entrada se pone en marcha; valor = tick de inicio */
+    public static final byte START = 1;
+    /** La entrada se detiene; valor = ticks acumulados */
+    public static final byte PAUSE = 2;
+    /** Paso de lote terminado; valor = unidades completadas. La entrada queda en espera */
+    public static final byte STEP = 3;
+    /** Entrada terminada y entregada; se quita de la cola */
+    public static final byte COMPLETE = 4;
+    /** Entrada cancelada; se quita de la cola */
+    public static final byte CANCEL = 5;
+    /** La entrada pasa a otra posición; valor = posición de destino */
+    public static final byte REORDER = 6;
+    /** Cambia el número de líneas; valor = líneas */
+    public static final byte LANES = 7;
+
+    private final long serverTick;
+    private final List<Op> ops;
+
+    public QueueDeltaPacket(long serverTick, List<Op> ops) {
+        this.serverTick = serverTick;
+        this.ops = ops;
+    }
+
+    public long getServerTick() { return serverTick; }
+    public List<Op> getOps() { return ops; }
+
+    public static void encode(QueueDeltaPacket msg, FriendlyByteBuf buf) {
+        buf.writeVarLong(msg.serverTick);
+        buf.writeVarInt(msg.ops.size());
+        for (Op op : msg.ops) {
+            buf.writeByte(op.type);
+            switch (op.type) {
+                case ENQUEUE -> QueueSyncPacket.writeEntry(buf, op.entry);
+                case LANES -> buf.writeVarInt((int) op.value);
+                case COMPLETE, CANCEL -> buf.writeVarInt(op.index);
+                default -> {
+                    buf.writeVarInt(op.index);
+                    buf.writeVarLong(op.value);
+                }
+            }
+        }
+    }
+
+    public static QueueDeltaPacket decode(FriendlyByteBuf buf) {
+        long serverTick = buf.readVarLong();
+        int count = buf.readVarInt();
+        List<Op> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte type = buf.readByte();
+            ops.add(switch (type) {
+                case ENQUEUE -> new Op(type, 0, 0, QueueSyncPacket.readEntry(buf));
+                case LANES -> new Op(type, 0, buf.readVarInt(), null);
+                case COMPLETE, CANCEL -> new Op(type, buf.readVarInt(), 0, null);
+                default -> new Op(type, buf.readVarInt(), buf.readVarLong(), null);
+            });
+        }
+        return new QueueDeltaPacket(serverTick, ops);
+    }
+
+    /**
+     * Una operación sobre la cola del cliente.
+     */
+    public static final class Op {
+        public final byte type;
+        public final int index;
+        public final long value;
+        public final QueueSyncPacket.Entry entry;
+
+        private Op(byte type, int index, long value, QueueSyncPacket.Entry entry) {
+            this.type = type;
+            this.index = index;
+            this.value = value;
+            this.entry = entry;
+        }
+
+        public static Op enqueue(QueueSyncPacket.Entry entry) { return new Op(ENQUEUE, 0, 0, entry); }
+        public static Op start(int index, long startTick) { return new Op(START, index, startTick, null); }
+        public static Op pause(int index, long elapsedTicks) { return new Op(PAUSE, index, elapsedTicks, null); }
+        public static Op step(int index, int completedCrafts) { return new Op(STEP, index, completedCrafts, null); }
+        public static Op complete(int index) { return new Op(COMPLETE, index, 0, null); }
+        public static Op cancel(int index) { return new Op(CANCEL, index, 0, null); }
+        public static Op reorder(int from, int to) { return new Op(REORDER, from, to, null); }
+        public static Op lanes(int lanes) { return new Op(LANES, 0, lanes, null); }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.client.gui.model.ClientCraftingQueue;
+import com.bitzlay.ebzinventory.crafting.CraftingQueueItem;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Servidor → cliente: estado completo de la cola de crafteo del jugador.
+ *
+ * Se envía al conectarse o cuando el cliente pierde el hilo; el resto de cambios llegan
+ * como {@link QueueDeltaPacket}. Cada entrada lleva
+ * su tick de inicio, la duración por unidad y el avance del lote, y el cliente calcula el progreso por su cuenta a partir
+ * del tick de servidor incluido en el paquete.
+ */
+public class QueueSyncPacket {
+    private final long serverTick;
+    private final int lanes;
+    private final List<Entry> entries;
+
+    public QueueSyncPacket(long serverTick, int lanes, List<Entry> entries) {
+        this.serverTick = serverTick;
+        this.lanes = lanes;
+        this.entries = entries;
+    }
+
+    public static QueueSyncPacket of(long serverTick, int lanes, List<CraftingQueueItem> queue) {
+        List<Entry> entries = new ArrayList<>(queue.size());
+        for (CraftingQueueItem item : queue) {
+            entries.add(Entry.of(item));
+        }
+        return new QueueSyncPacket(serverTick, lanes, entries);
+    }
+
+    public long getServerTick() { return serverTick; }
+    public int getLanes() { return lanes; }
+    public List<Entry> getEntries() { return entries; }
+
+    public static void encode(QueueSyncPacket msg, FriendlyByteBuf buf) {
+        buf.writeVarLong(msg.serverTick);
+        buf.writeVarInt(msg.lanes);
+        buf.writeVarInt(msg.entries.size());
+        for (Entry entry : msg.entries) {
+            writeEntry(buf, entry);
+        }
+    }
+
+    public static QueueSyncPacket decode(FriendlyByteBuf buf) {
+        long serverTick = buf.readVarLong();
+        int lanes = buf.readVarInt();
+        int count = buf.readVarInt();
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(readEntry(buf));
+        }
+        return new QueueSyncPacket(serverTick, lanes, entries);
+    }
+
+    public static void handle(QueueSyncPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            // Solo ejecutamos en el lado del cliente
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientCraftingQueue.onSync(msg));
+        });
+        ctx.get().setPacketHandled(true);
+    }
+
+    static void writeEntry(FriendlyByteBuf buf, Entry entry) {
+        buf.writeUtf(entry.recipeId);
+        // NOT_STARTED (-1) se codifica como 0 para que el varint no ocupe 10 bytes
+        buf.writeVarLong(entry.startTick + 1);
+        buf.writeVarLong(entry.elapsedTicks);
+        buf.writeVarLong(entry.ticksPerCraft);
+        buf.writeVarInt(entry.crafts);
+        buf.writeVarInt(entry.completedCrafts);
+        buf.writeVarInt(entry.stride);
+    }
+
+    static Entry readEntry(FriendlyByteBuf buf) {
+        return new Entry(buf.readUtf(), buf.readVarLong() - 1, buf.readVarLong(), buf.readVarLong(),
+                buf.readVarInt(), buf.readVarInt(), buf.readVarInt());
+    }
+
+    /**
+     * Estado sincronizado de una entrada de la cola.
+     */
+    public static final class Entry {
+        public final String recipeId;
+        public final long startTick;
+        public final long elapsedTicks;
+        public final long ticksPerCraft;
+        public final int crafts;
+        public final int completedCrafts;
+        public final int stride;
+
+        public Entry(String recipeId, long startTick, long elapsedTicks, long ticksPerCraft,
+                     int crafts, int completedCrafts, int stride) {
+            this.recipeId = recipeId;
+            this.startTick = startTick;
+            this.elapsedTicks = elapsedTicks;
+            this.ticksPerCraft = ticksPerCraft;
+            this.crafts = crafts;
+            this.completedCrafts = completedCrafts;
+            this.stride = stride;
+        }
+
+        public static Entry of(CraftingQueueItem item) {
+            return new Entry(item.getRecipeId(), item.getStartTick(), item.getElapsedTicks(),
+                    item.getTicksPerCraft(), item.getCrafts(), item.getCompletedCrafts(), item.getStride());
+        }
+    }
+}
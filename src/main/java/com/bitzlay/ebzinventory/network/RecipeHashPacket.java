@@ -0,0 +1,35 @@
+package com.bitzlay.ebzinventory.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Servidor → cliente: hash del conjunto de recetas del servidor, enviado al conectarse.
+ * El cliente solo pide el conjunto completo si el suyo no coincide.
+ */
+public class RecipeHashPacket {
+    private final long contentHash;
+
+    public RecipeHashPacket(long contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public static void encode(RecipeHashPacket msg, FriendlyByteBuf buf) {
+        buf.writeLong(msg.contentHash);
+    }
+
+    public static RecipeHashPacket decode(FriendlyByteBuf buf) {
+        return new RecipeHashPacket(buf.readLong());
+    }
+
+    public static void handle(RecipeHashPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> RecipeSync.onHashReceived(msg));
+        ctx.get().setPacketHandled(true);
+    }
+}
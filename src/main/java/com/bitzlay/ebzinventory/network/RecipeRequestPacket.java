@@ -0,0 +1,28 @@
+package com.bitzlay.ebzinventory.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Cliente → servidor: solicita el conjunto de recetas completo.
+ */
+public class RecipeRequestPacket {
+    public RecipeRequestPacket() {
+    }
+
+    public static void encode(RecipeRequestPacket msg, FriendlyByteBuf buf) {
+    }
+
+    public static RecipeRequestPacket decode(FriendlyByteBuf buf) {
+        return new RecipeRequestPacket();
+    }
+
+    public static void handle(RecipeRequestPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ServerPlayer sender = ctx.get().getSender();
+        ctx.get().enqueueWork(() -> RecipeSync.onFullSyncRequested(sender));
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,227 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import com.bitzlay.ebzinventory.recipe.InventoryRecipeManager;
+import com.bitzlay.ebzinventory.recipe.RecipeDiff;
+import com.bitzlay.ebzinventory.recipe.RecipeSnapshot;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.server.ServerLifecycleHooks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sincronización de recetas servidor → cliente. El servidor es la única fuente de recetas.
+ *
+ * Al conectarse, el cliente recibe solo el hash del conjunto; si no coincide con el suyo
+ * (por ejemplo, en un servidor integrado ya comparten instantánea) pide el conjunto
+ * completo. Las recargas en caliente se envían como cambios respecto al hash anterior; un
+ * cliente que no tenga ese conjunto base pide de nuevo el completo.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public class RecipeSync {
+    /** Recetas por paquete: mantiene cada fragmento muy por debajo del límite de 1 MB */
+    private static final int RECIPES_PER_PACKET = 256;
+
+    /** Intervalo mínimo entre envíos completos a un mismo jugador */
+    private static final long MIN_FULL_SYNC_INTERVAL_MS = 5000;
+
+    // Lado servidor: último envío completo por jugador y peticiones que esperan al intervalo
+    private static final Map<UUID, Long> lastFullSync = new HashMap<>();
+    private static final Set<UUID> deferredFullSync = new HashSet<>();
+
+    // Lado cliente: transferencia en curso
+    private static RecipeSnapshot.Builder incoming;
+    private static byte incomingKind;
+    private static long incomingTarget;
+    private static int expectedPart;
+    // Cambios llegados durante una transferencia completa; se aplican al terminarla
+    private static final List<RecipeSyncPacket> queuedDeltas = new ArrayList<>();
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            long hash = InventoryRecipeManager.getSnapshot().getContentHash();
+            ModNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new RecipeHashPacket(hash));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        lastFullSync.remove(event.getEntity().getUUID());
+        deferredFullSync.remove(event.getEntity().getUUID());
+    }
+
+    /**
+     * Atiende las peticiones completas que llegaron antes de cumplirse el intervalo mínimo.
+     */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || deferredFullSync.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        Iterator<UUID> iterator = deferredFullSync.iterator();
+        while (iterator.hasNext()) {
+            UUID playerId = iterator.next();
+            Long last = lastFullSync.get(playerId);
+            if (last != null && now - last < MIN_FULL_SYNC_INTERVAL_MS) continue;
+
+            iterator.remove();
+            ServerPlayer player = event.getServer().getPlayerList().getPlayer(playerId);
+            if (player != null) {
+                sendFull(player, now);
+            }
+        }
+    }
+
+    /**
+     * Envía a todos los jugadores los cambios entre dos instantáneas publicadas en el servidor.
+     */
+    public static void broadcastChanges(RecipeSnapshot previous, RecipeSnapshot next, RecipeDiff diff) {
+        if (diff.isEmpty() || ServerLifecycleHooks.getCurrentServer() == null) return;
+
+        List<InventoryRecipe> upserts = new ArrayList<>(diff.getAdded().size() + diff.getChanged().size());
+        for (String id : diff.getAdded()) {
+            upserts.add(next.getRecipe(id));
+        }
+        for (String id : diff.getChanged()) {
+            upserts.add(next.getRecipe(id));
+        }
+
+        for (RecipeSyncPacket packet : split(RecipeSyncPacket.DELTA, previous.getContentHash(),
+                next.getContentHash(), diff.getRemoved(), upserts)) {
+            ModNetwork.CHANNEL.send(PacketDistributor.ALL.noArg(), packet);
+        }
+    }
+
+    static void onFullSyncRequested(ServerPlayer player) {
+        if (player == null) return;
+
+        long now = System.currentTimeMillis();
+        Long last = lastFullSync.get(player.getUUID());
+        if (last != null && now - last < MIN_FULL_SYNC_INTERVAL_MS) {
+            // Se atiende al cumplirse el intervalo; varias peticiones seguidas dan un solo envío
+            deferredFullSync.add(player.getUUID());
+            return;
+        }
+        deferredFullSync.remove(player.getUUID());
+        sendFull(player, now);
+    }
+
+    private static void sendFull(ServerPlayer player, long now) {
+        lastFullSync.put(player.getUUID(), now);
+
+        RecipeSnapshot snapshot = InventoryRecipeManager.getSnapshot();
+        for (RecipeSyncPacket packet : split(RecipeSyncPacket.FULL, 0L, snapshot.getContentHash(),
+                Collections.emptyList(), snapshot.getRecipes())) {
+            ModNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), packet);
+        }
+    }
+
+    static void onHashReceived(RecipeHashPacket msg) {
+        if (InventoryRecipeManager.getSnapshot().getContentHash() == msg.getContentHash()) {
+            EbzInventory.LOGGER.debug("Recetas del servidor ya presentes en el cliente; no se transfieren");
+            return;
+        }
+        requestFullSync();
+    }
+
+    static void onSyncReceived(RecipeSyncPacket msg) {
+        if (incoming != null && incomingKind == RecipeSyncPacket.FULL && msg.getKind() == RecipeSyncPacket.DELTA) {
+            // Los cambios parten de un conjunto que aún no tenemos: esperan a que termine el completo
+            queuedDeltas.add(msg);
+            return;
+        }
+
+        if (msg.getPart() == 0) {
+            incoming = null;
+            RecipeSnapshot current = InventoryRecipeManager.getSnapshot();
+            if (current.getContentHash() == msg.getTargetHash()) {
+                // Ya tenemos ese conjunto (servidor integrado o transferencia repetida)
+                return;
+            }
+            if (msg.getKind() == RecipeSyncPacket.DELTA) {
+                if (current.getContentHash() != msg.getBaseHash()) {
+                    requestFullSync();
+                    return;
+                }
+                incoming = current.toBuilder();
+            } else {
+                incoming = new RecipeSnapshot.Builder();
+            }
+            incomingKind = msg.getKind();
+            incomingTarget = msg.getTargetHash();
+            expectedPart = 0;
+        }
+
+        // Fragmento de una transferencia descartada o fuera de orden
+        if (incoming == null || msg.getPart() != expectedPart || msg.getTargetHash() != incomingTarget) return;
+
+        for (String id : msg.getRemoved()) {
+            incoming.remove(id);
+        }
+        for (InventoryRecipe recipe : msg.getRecipes()) {
+            incoming.add(recipe);
+        }
+
+        if (++expectedPart < msg.getPartCount()) return;
+
+        RecipeSnapshot published = InventoryRecipeManager.publish(incoming);
+        incoming = null;
+        if (published.getContentHash() != incomingTarget) {
+            EbzInventory.LOGGER.warn("⚠️ Las recetas recibidas no coinciden con el hash del servidor");
+            if (incomingKind == RecipeSyncPacket.DELTA) {
+                queuedDeltas.clear();
+                requestFullSync();
+                return;
+            }
+        } else {
+            EbzInventory.LOGGER.info("✅ Recetas sincronizadas con el servidor: {} ({})", published.size(),
+                    incomingKind == RecipeSyncPacket.DELTA ? "cambios" : "completo");
+        }
+        replayQueuedDeltas();
+    }
+
+    /**
+     * Aplica, en orden de llegada, los cambios que esperaban a la transferencia completa.
+     */
+    private static void replayQueuedDeltas() {
+        if (queuedDeltas.isEmpty()) return;
+        List<RecipeSyncPacket> queued = new ArrayList<>(queuedDeltas);
+        queuedDeltas.clear();
+        for (RecipeSyncPacket packet : queued) {
+            onSyncReceived(packet);
+        }
+    }
+
+    private static void requestFullSync() {
+        ModNetwork.CHANNEL.sendToServer(new RecipeRequestPacket());
+    }
+
+    private static List<RecipeSyncPacket> split(byte kind, long baseHash, long targetHash,
+                                                List<String> removed, List<InventoryRecipe> recipes) {
+        int partCount = Math.max(1, (recipes.size() + RECIPES_PER_PACKET - 1) / RECIPES_PER_PACKET);
+        List<RecipeSyncPacket> packets = new ArrayList<>(partCount);
+        for (int part = 0; part < partCount; part++) {
+            int from = part * RECIPES_PER_PACKET;
+            int to = Math.min(recipes.size(), from + RECIPES_PER_PACKET);
+            packets.add(new RecipeSyncPacket(kind, baseHash, targetHash, part, partCount,
+                    part == 0 ? removed : Collections.emptyList(),
+                    recipes.subList(from, to)));
+        }
+        return packets;
+    }
+}
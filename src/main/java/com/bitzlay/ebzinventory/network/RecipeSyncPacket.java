@@ -0,0 +1,135 @@
+package com.bitzlay.ebzinventory.network;
+
+import com.bitzlay.ebzinventory.recipe.InventoryRecipe;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Servidor → cliente: un fragmento del conjunto de recetas, completo o como cambios.
+ *
+ * Los items se codifican con su ID numérico de registro (sincronizado por Forge al
+ * conectarse) como varint, y el conjunto se parte en fragmentos para no superar el
+ * tamaño máximo de un paquete. Todos los fragmentos de una transferencia llevan los
+ * mismos hashes y se aplican juntos al llegar el último.
+ */
+public class RecipeSyncPacket {
+    /** Conjunto completo: reemplaza lo que tenga el cliente */
+    public static final byte FULL = 0;
+    /** Cambios respecto a {@link #getBaseHash()}: eliminaciones y recetas nuevas o modificadas */
+    public static final byte DELTA = 1;
+
+    private final byte kind;
+    private final long baseHash;
+    private final long targetHash;
+    private final int part;
+    private final int partCount;
+    private final List<String> removed;
+    private final List<InventoryRecipe> recipes;
+
+    public RecipeSyncPacket(byte kind, long baseHash, long targetHash, int part, int partCount,
+                            List<String> removed, List<InventoryRecipe> recipes) {
+        this.kind = kind;
+        this.baseHash = baseHash;
+        this.targetHash = targetHash;
+        this.part = part;
+        this.partCount = partCount;
+        this.removed = removed;
+        this.recipes = recipes;
+    }
+
+    public byte getKind() { return kind; }
+    public long getBaseHash() { return baseHash; }
+    public long getTargetHash() { return targetHash; }
+    public int getPart() { return part; }
+    public int getPartCount() { return partCount; }
+    public List<String> getRemoved() { return removed; }
+    public List<InventoryRecipe> getRecipes() { return recipes; }
+
+    public static void encode(RecipeSyncPacket msg, FriendlyByteBuf buf) {
+        buf.writeByte(msg.kind);
+        buf.writeLong(msg.baseHash);
+        buf.writeLong(msg.targetHash);
+        buf.writeVarInt(msg.part);
+        buf.writeVarInt(msg.partCount);
+
+        buf.writeVarInt(msg.removed.size());
+        for (String id : msg.removed) {
+            buf.writeUtf(id);
+        }
+
+        buf.writeVarInt(msg.recipes.size());
+        for (InventoryRecipe recipe : msg.recipes) {
+            writeRecipe(buf, recipe);
+        }
+    }
+
+    public static RecipeSyncPacket decode(FriendlyByteBuf buf) {
+        byte kind = buf.readByte();
+        long baseHash = buf.readLong();
+        long targetHash = buf.readLong();
+        int part = buf.readVarInt();
+        int partCount = buf.readVarInt();
+
+        int removedCount = buf.readVarInt();
+        List<String> removed = removedCount == 0 ? Collections.emptyList() : new ArrayList<>(removedCount);
+        for (int i = 0; i < removedCount; i++) {
+            removed.add(buf.readUtf());
+        }
+
+        int recipeCount = buf.readVarInt();
+        List<InventoryRecipe> recipes = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            recipes.add(readRecipe(buf));
+        }
+        return new RecipeSyncPacket(kind, baseHash, targetHash, part, partCount, removed, recipes);
+    }
+
+    public static void handle(RecipeSyncPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> RecipeSync.onSyncReceived(msg));
+        ctx.get().setPacketHandled(true);
+    }
+
+    private static void writeRecipe(FriendlyByteBuf buf, InventoryRecipe recipe) {
+        buf.writeUtf(recipe.getId());
+        buf.writeUtf(recipe.getCategory());
+        buf.writeUtf(recipe.getDisplayName());
+
+        ItemStack result = recipe.getResult();
+        buf.writeVarInt(Item.getId(result.getItem()));
+        buf.writeVarInt(result.getCount());
+        buf.writeNbt(result.getTag());
+
+        buf.writeVarLong(recipe.getCraftingTime());
+        buf.writeVarInt(recipe.getIngredientCount());
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            buf.writeVarInt(Item.getId(recipe.getIngredientItem(i)));
+            buf.writeVarInt(recipe.getIngredientAmount(i));
+        }
+    }
+
+    private static InventoryRecipe readRecipe(FriendlyByteBuf buf) {
+        String id = buf.readUtf();
+        String category = buf.readUtf();
+        String displayName = buf.readUtf();
+
+        ItemStack result = new ItemStack(Item.byId(buf.readVarInt()), buf.readVarInt());
+        result.setTag(buf.readNbt());
+
+        long craftingTime = buf.readVarLong();
+        int ingredientCount = buf.readVarInt();
+        Map<Item, Integer> ingredients = new LinkedHashMap<>();
+        for (int i = 0; i < ingredientCount; i++) {
+            ingredients.put(Item.byId(buf.readVarInt()), buf.readVarInt());
+        }
+        return new InventoryRecipe(id, category, displayName, result, ingredients, craftingTime);
+    }
+}
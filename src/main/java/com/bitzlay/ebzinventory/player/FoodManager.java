@@ -1,6 +1,7 @@
 package com.bitzlay.ebzinventory.player;
 
 import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.capability.IHydration;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.food.FoodProperties;
 import net.minecraft.world.item.Item;
@@ -75,11 +76,15 @@ public class FoodManager {
             Item item = itemStack.getItem();
 
             // Si es un item con valor nutricional personalizado, aplicar efectos adicionales
-            if (customFoodValues.containsKey(item)) {
+            Integer foodValue = customFoodValues.get(item);
+            if (foodValue != null) {
                 // Aquí podrías implementar efectos especiales para alimentos específicos
                 // Por ejemplo, efectos temporales, bonificaciones, etc.
-                EbzInventory.LOGGER.info("Jugador {} consumió alimento especial: {}",
-                        player.getDisplayName().getString(), itemStack.getDisplayName().getString());
+                IHydration hydrationData = PlayerHydrationManager.getHydrationDataDirect(player);
+                if (hydrationData != null) {
+                    hydrationData.getTrace().record(player.level().getGameTime(), HydrationTrace.SPECIAL_FOOD,
+                            foodValue, player.getFoodData().getFoodLevel());
+                }
             }
         } catch (Exception e) {
             EbzInventory.LOGGER.error("Error al procesar efectos de alimentación personalizados", e);
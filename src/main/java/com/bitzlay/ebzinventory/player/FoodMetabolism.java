@@ -0,0 +1,95 @@
+package com.bitzlay.ebzinventory.player;
+
+import com.bitzlay.ebzinventory.capability.IHydration;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.food.FoodData;
+
+/**
+ * Reducción periódica del hambre según la actividad, con los mismos ratios que la
+ * hidratación. La ejecuta {@link MetabolismScheduler} en el tick asignado a cada jugador;
+ * la regeneración de salud sigue en ImprovedFoodDataMixin.
+ */
+public final class FoodMetabolism {
+
+    private FoodMetabolism() {
+    }
+
+    /**
+     * Aplica un ciclo de hambre. Debe llamarse antes del ciclo de hidratación, que es el
+     * que reinicia los contadores de actividad.
+     */
+    static void process(Player player) {
+        FoodData foodData = player.getFoodData();
+
+        // Calcular reducción basada en la actividad acumulada
+        float reductionAmount = calculateFoodReductionFromActivity(player);
+
+        // La reducción se aplica directamente al nivel de comida
+        int previousFood = foodData.getFoodLevel();
+        foodData.setFoodLevel(Math.max(0, previousFood - Math.round(reductionAmount)));
+
+        // Dejar el ciclo en la traza del jugador
+        HydrationTrace trace = trace(player);
+        long gameTime = player.level().getGameTime();
+        if (trace != null) {
+            trace.record(gameTime, HydrationTrace.FOOD_CYCLE, reductionAmount, foodData.getFoodLevel());
+        }
+
+        // Aplicar daño si el hambre es 0
+        if (foodData.getFoodLevel() <= 0) {
+            player.hurt(player.damageSources().starve(), 2.0F); // 1 corazón
+            if (trace != null) {
+                trace.record(gameTime, HydrationTrace.STARVATION_DAMAGE, 2.0F, foodData.getFoodLevel());
+            }
+        }
+
+        // NOTA: No verificamos el nivel de hambre para sprint
+        // El SprintMixin.java permite el sprint independientemente del nivel de hambre
+    }
+
+    private static HydrationTrace trace(Player player) {
+        IHydration hydrationData = PlayerHydrationManager.getHydrationDataDirect(player);
+        return hydrationData != null ? hydrationData.getTrace() : null;
+    }
+
+    /**
+     * Calcula la reducción de hambre basada en la actividad del jugador,
+     * usando el mismo sistema y ratios que la hidratación
+     */
+    private static float calculateFoodReductionFromActivity(Player player) {
+        // Base de reducción (siempre presente, incluso sin actividad)
+        float baseReduction = 0.8F;
+
+        // Obtener datos de actividad desde la capability del jugador
+        PlayerActivityData activityData = PlayerHydrationManager.getActivityData(player);
+        if (activityData == null) {
+            return baseReduction; // Valor por defecto si no hay datos
+        }
+
+        float activityFactor = 0.0F;
+
+        // Factor por distancia recorrida (bloques) - igual que en hidratación
+        float distanceFactor = Math.min(2.0F, (float)(activityData.getDistanceTraveled() / 100.0) * 0.5F);
+        activityFactor += distanceFactor;
+
+        // Factor por saltos - igual que en hidratación
+        float jumpFactor = Math.min(1.0F, (activityData.getJumpCount() / 10.0F) * 0.2F);
+        activityFactor += jumpFactor;
+
+        // Factor por exposición al sol
+        if (player.level().canSeeSky(player.blockPosition()) &&
+                player.level().isDay() &&
+                !player.level().isRaining()) {
+            activityFactor += 0.4F;
+        }
+
+        // No reducimos por estar en agua ya que eso es específico de hidratación
+
+        // Calcular total
+        float totalReduction = baseReduction + activityFactor;
+
+        // No reiniciamos los contadores aquí, ya que eso lo hace el sistema de hidratación
+
+        return totalReduction;
+    }
+}
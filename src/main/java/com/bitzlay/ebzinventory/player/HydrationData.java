@@ -3,6 +3,7 @@ package com.bitzlay.ebzinventory.player;
 import com.bitzlay.ebzinventory.EbzInventory;
 import com.bitzlay.ebzinventory.capability.IHydration;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.world.entity.player.Player;
 
 /**
@@ -15,16 +16,29 @@ public class HydrationData implements IHydration {
     private static final float MIN_HYDRATION = 0.0F;
     private static final float DEFAULT_HYDRATION = 100.0F;
     private static final String NBT_HYDRATION_KEY = "HydrationLevel";
+    private static final String NBT_LAST_METABOLISM_KEY = "LastMetabolism";
 
     // Datos del jugador
     private float hydrationLevel;
+    // Tiempo de juego del último ciclo de hambre e hidratación; -1 si aún no hubo ninguno
+    private long lastMetabolismTime = -1;
+    // Fase de MetabolismScheduler en esta sesión (solo servidor, no se guarda)
+    private int metabolismPhase = -1;
+
+    // Último valor enviado al cliente (solo servidor); NaN hasta el primer envío
+    private float lastSyncedLevel = Float.NaN;
+    private boolean syncForced = true;
+
+    // Actividad desde el último ciclo (solo servidor, no se guarda)
+    private final PlayerActivityData activity = new PlayerActivityData();
+    private final HydrationTrace trace = new HydrationTrace();
 
     /**
      * Constructor por defecto.
      */
     public HydrationData() {
         this.hydrationLevel = DEFAULT_HYDRATION;
-        EbzInventory.LOGGER.info("HydrationData inicializado con valor: {}", this.hydrationLevel);
+        EbzInventory.LOGGER.debug("HydrationData inicializado con valor: {}", this.hydrationLevel);
     }
 
     /**
@@ -34,14 +48,7 @@ public class HydrationData implements IHydration {
     public float add(float amount) {
         float prevLevel = this.hydrationLevel;
         this.hydrationLevel = Math.min(this.hydrationLevel + amount, MAX_HYDRATION);
-        float added = this.hydrationLevel - prevLevel;
-
-        if (added > 0) {
-            EbzInventory.LOGGER.info("Hidratación añadida: {} (Anterior: {}, Actual: {})",
-                    added, prevLevel, this.hydrationLevel);
-        }
-
-        return added;
+        return this.hydrationLevel - prevLevel;
     }
 
     /**
@@ -130,11 +137,60 @@ public class HydrationData implements IHydration {
         }
     }
 
+    @Override
+    public boolean needsSync(float epsilon) {
+        return syncForced || Float.isNaN(lastSyncedLevel) || Math.abs(hydrationLevel - lastSyncedLevel) > epsilon;
+    }
+
+    @Override
+    public void markSynced(float sentLevel) {
+        this.lastSyncedLevel = sentLevel;
+        this.syncForced = false;
+    }
+
+    @Override
+    public void markDirty() {
+        this.syncForced = true;
+    }
+
+    @Override
+    public PlayerActivityData getActivity() {
+        return activity;
+    }
+
+    @Override
+    public HydrationTrace getTrace() {
+        return trace;
+    }
+
+    @Override
+    public long getLastMetabolismTime() {
+        return lastMetabolismTime;
+    }
+
+    @Override
+    public void setLastMetabolismTime(long gameTime) {
+        this.lastMetabolismTime = gameTime;
+    }
+
+    @Override
+    public int getMetabolismPhase() {
+        return metabolismPhase;
+    }
+
+    @Override
+    public void setMetabolismPhase(int phase) {
+        this.metabolismPhase = phase;
+    }
+
     @Override
     public CompoundTag serializeNBT() {
         try {
             CompoundTag tag = new CompoundTag();
             tag.putFloat(NBT_HYDRATION_KEY, this.hydrationLevel);
+            if (this.lastMetabolismTime >= 0) {
+                tag.putLong(NBT_LAST_METABOLISM_KEY, this.lastMetabolismTime);
+            }
             return tag;
         } catch (Exception e) {
             EbzInventory.LOGGER.error("Error al serializar HydrationData", e);
@@ -161,6 +217,10 @@ public class HydrationData implements IHydration {
                 this.hydrationLevel = DEFAULT_HYDRATION;
             }
 
+            this.lastMetabolismTime = nbt.contains(NBT_LAST_METABOLISM_KEY, Tag.TAG_LONG)
+                    ? nbt.getLong(NBT_LAST_METABOLISM_KEY)
+                    : -1;
+
             EbzInventory.LOGGER.debug("HydrationData cargado con valor: {}", this.hydrationLevel);
         } catch (Exception e) {
             EbzInventory.LOGGER.error("Error al deserializar datos de hidratación", e);
@@ -0,0 +1,100 @@
+package com.bitzlay.ebzinventory.player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro circular de los últimos eventos de hidratación y hambre de un jugador.
+ *
+ * Sustituye a los logs por evento: cada registro escribe una posición en cuatro arrays de
+ * primitivos de tamaño fijo (tiempo, tipo y dos valores) e incrementa el contador, sin
+ * texto ni reservas de memoria. Solo se formatea al volcarlo
+ * con {@code /ebzinventory hydration trace}. Vive en la capability de hidratación del
+ * jugador y no se guarda en disco. Solo hilo del servidor.
+ */
+public class HydrationTrace {
+    /** Eventos que se conservan; los más antiguos se sobrescriben */
+    public static final int CAPACITY = 64;
+
+    /** Bebida o consumible; a = cambio aplicado, b = nivel resultante */
+    public static final byte DRINK = 0;
+    /** Ciclo de hidratación; a = reducción, b = nivel resultante */
+    public static final byte HYDRATION_CYCLE = 1;
+    /** Ciclo de hambre; a = reducción, b = nivel de comida resultante */
+    public static final byte FOOD_CYCLE = 2;
+    /** Actividad acumulada al cerrar un ciclo; a = bloques recorridos, b = saltos */
+    public static final byte ACTIVITY = 3;
+    /** Daño por deshidratación; a = daño, b = nivel de hidratación */
+    public static final byte DEHYDRATION_DAMAGE = 4;
+    /** Daño por hambre; a = daño, b = nivel de comida */
+    public static final byte STARVATION_DAMAGE = 5;
+    /** Alimento con valor nutricional propio; a = nutrición, b = nivel de comida resultante */
+    public static final byte SPECIAL_FOOD = 6;
+
+    private static final String[] NAMES = {
+            "bebida", "ciclo hidratación", "ciclo hambre", "actividad", "daño sed", "daño hambre",
+            "alimento especial"
+    };
+
+    private final long[] times = new long[CAPACITY];
+    private final byte[] types = new byte[CAPACITY];
+    private final float[] valuesA = new float[CAPACITY];
+    private final float[] valuesB = new float[CAPACITY];
+    // Total de eventos registrados; la posición siguiente es written % CAPACITY
+    private long written;
+
+    /**
+     * Registra un evento.
+     * @param gameTime Tiempo de juego del nivel en que ocurre
+     */
+    public void record(long gameTime, byte type, float a, float b) {
+        int slot = (int) (written % CAPACITY);
+        times[slot] = gameTime;
+        types[slot] = type;
+        valuesA[slot] = a;
+        valuesB[slot] = b;
+        written++;
+    }
+
+    public int size() {
+        return (int) Math.min(written, CAPACITY);
+    }
+
+    /**
+     * Copia los eventos de otra traza (al reaparecer o cambiar de dimensión, para no perder
+     * lo ocurrido justo antes).
+     */
+    public void copyFrom(HydrationTrace other) {
+        System.arraycopy(other.times, 0, times, 0, CAPACITY);
+        System.arraycopy(other.types, 0, types, 0, CAPACITY);
+        System.arraycopy(other.valuesA, 0, valuesA, 0, CAPACITY);
+        System.arraycopy(other.valuesB, 0, valuesB, 0, CAPACITY);
+        written = other.written;
+    }
+
+    /**
+     * Eventos en texto, del más antiguo al más reciente.
+     * @param now Tiempo de juego actual, para mostrar la antigüedad de cada evento
+     */
+    public List<String> describe(long now) {
+        int count = size();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((written - count + i) % CAPACITY);
+            lines.add(describe(types[slot], now - times[slot], valuesA[slot], valuesB[slot]));
+        }
+        return lines;
+    }
+
+    private static String describe(byte type, long ticksAgo, float a, float b) {
+        String name = type >= 0 && type < NAMES.length ? NAMES[type] : "?" + type;
+        String ago = String.format("-%.1fs", ticksAgo / 20.0);
+        return switch (type) {
+            case DRINK, SPECIAL_FOOD -> String.format("%s %s %+.2f → %.2f", ago, name, a, b);
+            case HYDRATION_CYCLE, FOOD_CYCLE -> String.format("%s %s -%.2f → %.2f", ago, name, a, b);
+            case ACTIVITY -> String.format("%s %s %.1f bloques, %d saltos", ago, name, a, (int) b);
+            case DEHYDRATION_DAMAGE, STARVATION_DAMAGE -> String.format("%s %s %.1f (nivel %.2f)", ago, name, a, b);
+            default -> String.format("%s %s %.2f %.2f", ago, name, a, b);
+        };
+    }
+}
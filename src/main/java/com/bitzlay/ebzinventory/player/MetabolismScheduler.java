@@ -0,0 +1,256 @@
+package com.bitzlay.ebzinventory.player;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.capability.IHydration;
+import com.bitzlay.ebzinventory.config.HydrationConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.bitzlay.ebzinventory.EbzInventory.LOGGER;
+
+/**
+ * Reparte entre los ticks del servidor el ciclo de 30 segundos de hambre e hidratación.
+ *
+ * Cada jugador recibe al conectarse una fase (un tick dentro del ciclo de 600). El tiempo de
+ * juego de su último ciclo se guarda con el jugador, así que la fase se elige en torno al
+ * momento en que le toca el siguiente: reconectar no adelanta ni retrasa el ciclo. Dentro de
+ * un margen de {@link #PHASE_WINDOW} ticks se escoge la fase menos ocupada. Un jugador sin
+ * ciclo previo tiene su primer ciclo un periodo después de conectarse.
+ *
+ * En cada tick se procesan los jugadores de la fase actual hasta el presupuesto
+ * configurado; los que no caben pasan al tick siguiente, por delante de la fase siguiente.
+ * Solo hilo del servidor.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public final class MetabolismScheduler {
+    /** Duración del ciclo en ticks (30 segundos) */
+    public static final int PERIOD = 600;
+
+    /** Fases ocupadas que se listan en las estadísticas */
+    private static final int SUMMARY_PHASES = 16;
+
+    /**
+     * Ticks que puede adelantarse o retrasarse el ciclo de un jugador al conectarse para
+     * repartir la carga entre fases.
+     */
+    private static final int PHASE_WINDOW = 20;
+
+    private static final List<List<UUID>> buckets = new ArrayList<>(PERIOD);
+    private static final Map<UUID, Integer> phases = new HashMap<>();
+    private static final ArrayDeque<UUID> deferred = new ArrayDeque<>();
+
+    // Estadísticas
+    private static int lastProcessed;
+    private static int lastDeferred;
+    private static int maxProcessed;
+    private static long totalDeferred;
+
+    static {
+        for (int i = 0; i < PERIOD; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    private MetabolismScheduler() {
+    }
+
+    /**
+     * @param tick  Tick actual del servidor
+     * @param delay Ticks hasta el siguiente ciclo del jugador, entre 1 y {@code PERIOD - 1}
+     */
+    private static int assign(UUID playerId, int tick, int delay) {
+        Integer existing = phases.get(playerId);
+        if (existing != null) return existing;
+
+        // La fase más libre cerca del retraso pedido; a igualdad, la más cercana
+        int bestDelay = delay;
+        int bestSize = buckets.get(phaseAt(tick, delay)).size();
+        for (int offset = 1; offset <= PHASE_WINDOW && bestSize > 0; offset++) {
+            int later = delay + offset;
+            if (later < PERIOD && buckets.get(phaseAt(tick, later)).size() < bestSize) {
+                bestDelay = later;
+                bestSize = buckets.get(phaseAt(tick, later)).size();
+            }
+            int earlier = delay - offset;
+            if (earlier >= 1 && buckets.get(phaseAt(tick, earlier)).size() < bestSize) {
+                bestDelay = earlier;
+                bestSize = buckets.get(phaseAt(tick, earlier)).size();
+            }
+        }
+
+        int phase = phaseAt(tick, bestDelay);
+        buckets.get(phase).add(playerId);
+        phases.put(playerId, phase);
+        return phase;
+    }
+
+    /**
+     * Fase asignada al jugador conectado, o -1 si no tiene.
+     */
+    public static int getPhase(UUID playerId) {
+        Integer phase = phases.get(playerId);
+        return phase != null ? phase : -1;
+    }
+
+    private static int phaseAt(int tick, int delay) {
+        return (tick + delay) % PERIOD;
+    }
+
+    /**
+     * Ticks hasta el siguiente ciclo del jugador según el último que se le aplicó.
+     */
+    private static int delayFor(ServerPlayer player) {
+        IHydration hydrationData = PlayerHydrationManager.getHydrationDataDirect(player);
+        long last = hydrationData != null ? hydrationData.getLastMetabolismTime() : -1;
+        if (last < 0) return PERIOD - 1;
+
+        long elapsed = player.level().getGameTime() - last;
+        if (elapsed < 0) return PERIOD - 1;
+        // Si estuvo fuera más de un periodo, el ciclo pendiente se aplica enseguida
+        return (int) Math.max(1, Math.min(PERIOD - 1, PERIOD - elapsed));
+    }
+
+    private static void release(UUID playerId) {
+        Integer phase = phases.remove(playerId);
+        if (phase != null) {
+            buckets.get(phase).remove(playerId);
+        }
+        deferred.remove(playerId);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            assign(player.getUUID(), player.server.getTickCount(), delayFor(player));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        release(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        for (List<UUID> bucket : buckets) {
+            bucket.clear();
+        }
+        phases.clear();
+        deferred.clear();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+
+        MinecraftServer server = event.getServer();
+        int budget = HydrationConfig.METABOLISM_BUDGET_PER_TICK.get();
+        int processed = 0;
+
+        // Primero lo aplazado de ticks anteriores, luego la fase actual
+        while (processed < budget && !deferred.isEmpty()) {
+            if (process(server, deferred.poll())) processed++;
+        }
+
+        List<UUID> due = buckets.get(server.getTickCount() % PERIOD);
+        for (int i = 0; i < due.size(); i++) {
+            if (processed < budget) {
+                if (process(server, due.get(i))) processed++;
+            } else {
+                deferred.add(due.get(i));
+                totalDeferred++;
+            }
+        }
+
+        lastProcessed = processed;
+        lastDeferred = deferred.size();
+        maxProcessed = Math.max(maxProcessed, processed);
+    }
+
+    /**
+     * @return false si el jugador ya no está y no ha consumido presupuesto
+     */
+    private static boolean process(MinecraftServer server, UUID playerId) {
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        if (player == null) return false;
+
+        IHydration hydrationData = PlayerHydrationManager.getHydrationDataDirect(player);
+        if (hydrationData != null) {
+            hydrationData.setLastMetabolismTime(player.level().getGameTime());
+        }
+
+        // Mismas condiciones que el tick del jugador: nada en creativo, espectador o muerto
+        if (player.isCreative() || player.isSpectator() || !player.isAlive()) return true;
+
+        // El hambre primero: la hidratación reinicia los contadores de actividad que usan ambos
+        try {
+            FoodMetabolism.process(player);
+        } catch (Exception e) {
+            LOGGER.error("Error en el ciclo de hambre", e);
+        }
+        PlayerHydrationManager.processHydrationCycle(player);
+        return true;
+    }
+
+    /**
+     * Reparto actual de jugadores por fase, para el comando de estadísticas.
+     */
+    public static List<String> summary() {
+        int maxPerPhase = 0;
+        int occupied = 0;
+        // Número de fases por cantidad de jugadores en ellas
+        Map<Integer, Integer> occupancy = new TreeMap<>();
+        for (List<UUID> bucket : buckets) {
+            int size = bucket.size();
+            if (size == 0) continue;
+            occupied++;
+            maxPerPhase = Math.max(maxPerPhase, size);
+            occupancy.merge(size, 1, Integer::sum);
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Jugadores: %d en %d de %d fases (máx. %d por fase)",
+                phases.size(), occupied, PERIOD, maxPerPhase));
+        if (!occupancy.isEmpty()) {
+            StringBuilder builder = new StringBuilder("Fases por ocupación:");
+            occupancy.forEach((players, count) -> builder.append(' ')
+                    .append(count).append('×').append(players));
+            lines.add(builder.toString());
+        }
+        if (occupied > 0) {
+            // Fases ocupadas, las más cargadas primero
+            List<Integer> busiest = new ArrayList<>(occupied);
+            for (int phase = 0; phase < PERIOD; phase++) {
+                if (!buckets.get(phase).isEmpty()) busiest.add(phase);
+            }
+            busiest.sort((a, b) -> buckets.get(b).size() - buckets.get(a).size());
+            StringBuilder builder = new StringBuilder("Jugadores por fase:");
+            for (int i = 0; i < Math.min(SUMMARY_PHASES, busiest.size()); i++) {
+                int phase = busiest.get(i);
+                builder.append(' ').append(phase).append('=').append(buckets.get(phase).size());
+            }
+            if (busiest.size() > SUMMARY_PHASES) {
+                builder.append(" … (+").append(busiest.size() - SUMMARY_PHASES).append(')');
+            }
+            lines.add(builder.toString());
+        }
+        lines.add(String.format("Presupuesto por tick: %d · último tick: %d procesados, %d en espera",
+                HydrationConfig.METABOLISM_BUDGET_PER_TICK.get(), lastProcessed, lastDeferred));
+        lines.add(String.format("Máximo procesado en un tick: %d · aplazamientos totales: %d",
+                maxProcessed, totalDeferred));
+        return lines;
+    }
+}
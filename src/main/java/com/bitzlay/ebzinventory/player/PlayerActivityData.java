@@ -0,0 +1,44 @@
+package com.bitzlay.ebzinventory.player;
+
+/**
+ * Actividad acumulada de un jugador entre dos ciclos de hambre e hidratación.
+ *
+ * Vive dentro de la capability de hidratación del jugador ({@link HydrationData}), así que
+ * se crea y desaparece con la entidad. Solo guarda primitivos: la actualización de cada
+ * tick no reserva memoria. No se guarda en disco.
+ */
+public class PlayerActivityData {
+    // Última posición horizontal registrada
+    double lastX;
+    double lastZ;
+    boolean hasLastPosition;
+
+    boolean wasOnGround = true;  // Variable para rastrear si estaba en el suelo
+    long lastJumpTime = 0;       // Tiempo del último salto
+
+    double distanceTraveled = 0;
+    int jumpCount = 0;
+
+    public double getDistanceTraveled() {
+        return distanceTraveled;
+    }
+
+    public int getJumpCount() {
+        return jumpCount;
+    }
+
+    public void resetCounters() {
+        this.distanceTraveled = 0;
+        this.jumpCount = 0;
+    }
+
+    /**
+     * Copia los contadores de otro jugador (cambio de dimensión). La posición no se copia:
+     * en la nueva dimensión no tiene sentido medir distancia respecto a la anterior.
+     */
+    public void copyCountersFrom(PlayerActivityData other) {
+        this.distanceTraveled = other.distanceTraveled;
+        this.jumpCount = other.jumpCount;
+        this.lastJumpTime = other.lastJumpTime;
+    }
+}
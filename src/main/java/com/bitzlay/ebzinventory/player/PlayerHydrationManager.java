@@ -4,13 +4,13 @@ import com.bitzlay.ebzinventory.EbzInventory;
 import com.bitzlay.ebzinventory.capability.HydrationProvider;
 import com.bitzlay.ebzinventory.capability.IHydration;
 import com.bitzlay.ebzinventory.capability.ModCapabilities;
+import com.bitzlay.ebzinventory.config.HydrationConfig;
+import com.bitzlay.ebzinventory.network.PlayerStatusSync;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.Item;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.*;
 import net.minecraftforge.common.util.LazyOptional;
@@ -21,14 +21,9 @@ import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
-import net.minecraftforge.registries.ForgeRegistries;
 
 import javax.annotation.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 import static com.bitzlay.ebzinventory.EbzInventory.LOGGER;
 
 /**
@@ -37,11 +32,12 @@ import static com.bitzlay.ebzinventory.EbzInventory.LOGGER;
  */
 @Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
 public class PlayerHydrationManager {
+    /** Ticks entre el ciclo de metabolismo de un jugador y sus comprobaciones de envío */
+    private static final int SYNC_CHECK_OFFSET = 10;
+
     // Definimos la capability - IMPORTANTE: Usar exactamente la misma instancia que en ModCapabilities
     public static final Capability<IHydration> HYDRATION_CAPABILITY = ModCapabilities.PLAYER_HYDRATION;
 
-    private static final Map<UUID, PlayerActivityData> playerActivityMap = new HashMap<>();
-
     /**
      * Inicializa el sistema de hidratación
      */
@@ -142,8 +138,6 @@ public class PlayerHydrationManager {
      */
     public static boolean addHydration(Player player, float amount) {
         try {
-            LOGGER.debug("Intentando modificar {} de hidratación a {}", amount, player.getDisplayName().getString());
-
             LazyOptional<IHydration> capability = getHydrationData(player);
             if (capability.isPresent()) {
                 capability.ifPresent(hydrationData -> {
@@ -153,17 +147,15 @@ public class PlayerHydrationManager {
                         if (amount >= 0) {
                             added = hydrationData.add(amount);
                         } else {
-                            added = -hydrationData.subtract(-amount); // Negativo para consistencia en logs
+                            added = -hydrationData.subtract(-amount); // Negativo para consistencia en la traza
                         }
 
-                        String operacion = amount >= 0 ? "añadido" : "restado";
-                        LOGGER.info("{} {} de hidratación al jugador {}. Nuevo nivel: {}",
-                                operacion, Math.abs(added), player.getDisplayName().getString(),
-                                hydrationData.getHydrationLevel());
+                        hydrationData.getTrace().record(player.level().getGameTime(), HydrationTrace.DRINK,
+                                added, hydrationData.getHydrationLevel());
 
-                        // Sincronizar con cliente
+                        // Sincronizar con cliente si el cambio supera el umbral
                         if (!player.level().isClientSide() && player instanceof ServerPlayer serverPlayer) {
-                            com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
+                            PlayerStatusSync.syncHydrationIfChanged(serverPlayer);
                         }
                     } catch (Exception e) {
                         LOGGER.error("Error al modificar hidratación", e);
@@ -202,17 +194,20 @@ public class PlayerHydrationManager {
             // Invalidamos el proveedor cuando se liberan las capabilities
             event.addListener(provider::invalidate);
 
-            // Log sin usar getName() para evitar NPE
-            EbzInventory.LOGGER.info("Capability de hidratación adjuntada a un jugador");
-
-            // Solo logueamos el nombre si es seguro
-            try {
-                Player player = (Player) event.getObject();
-                if (player.getGameProfile() != null && player.getDisplayName().getString() != null) {
-                    EbzInventory.LOGGER.info("Capability adjuntada a jugador: {}", player.getDisplayName().getString());
+            // Se adjunta en cada creación de jugador (conexión, reaparición, cambio de
+            // dimensión): solo en debug, y el nombre solo si ese nivel está activo
+            if (EbzInventory.LOGGER.isDebugEnabled()) {
+                try {
+                    Player player = (Player) event.getObject();
+                    if (player.getGameProfile() != null) {
+                        EbzInventory.LOGGER.debug("Capability de hidratación adjuntada a jugador: {}",
+                                player.getGameProfile().getName());
+                    } else {
+                        EbzInventory.LOGGER.debug("Capability de hidratación adjuntada a un jugador");
+                    }
+                } catch (Exception ignored) {
+                    // Si hay cualquier error al intentar obtener el nombre, simplemente lo ignoramos
                 }
-            } catch (Exception ignored) {
-                // Si hay cualquier error al intentar obtener el nombre, simplemente lo ignoramos
             }
         } catch (Exception e) {
             EbzInventory.LOGGER.error("Error al adjuntar capability de hidratación", e);
@@ -220,69 +215,6 @@ public class PlayerHydrationManager {
         }
     }
 
-    /**
-     * Clase para almacenar datos de actividad del jugador.
-     * Se hace pública para permitir su acceso desde FoodManager.
-     */
-    public static class PlayerActivityData {
-        private Vec3 lastPosition;
-        private double distanceTraveled = 0;
-        private int jumpCount = 0;
-        private boolean wasOnGround = true;  // Variable para rastrear si estaba en el suelo
-        private long lastJumpTime = 0;       // Tiempo del último salto
-
-        public PlayerActivityData(Vec3 initialPosition, boolean onGround) {
-            this.lastPosition = initialPosition;
-            this.wasOnGround = onGround;
-        }
-
-        // Getters para permitir acceso desde FoodManager
-        public double getDistanceTraveled() {
-            return distanceTraveled;
-        }
-
-        public int getJumpCount() {
-            return jumpCount;
-        }
-
-        public void setLastPosition(Vec3 position) {
-            this.lastPosition = position;
-        }
-
-        public Vec3 getLastPosition() {
-            return lastPosition;
-        }
-
-        public void setWasOnGround(boolean wasOnGround) {
-            this.wasOnGround = wasOnGround;
-        }
-
-        public boolean getWasOnGround() {
-            return wasOnGround;
-        }
-
-        public void setLastJumpTime(long time) {
-            this.lastJumpTime = time;
-        }
-
-        public long getLastJumpTime() {
-            return lastJumpTime;
-        }
-
-        public void addDistanceTraveled(double distance) {
-            this.distanceTraveled += distance;
-        }
-
-        public void incrementJumpCount() {
-            this.jumpCount++;
-        }
-
-        public void resetCounters() {
-            this.distanceTraveled = 0;
-            this.jumpCount = 0;
-        }
-    }
-
     /**
      * Sistema para actualizar hidratación y actividad del jugador.
      * El control de regeneración ahora se maneja en ImprovedFoodDataMixin.
@@ -300,57 +232,89 @@ public class PlayerHydrationManager {
         }
 
         Player player = event.player;
-        UUID playerId = player.getUUID();
+        IHydration hydrationData = getHydrationDataDirect(player);
+        if (hydrationData == null) return;
 
         // Actualizar datos de actividad cada tick
-        updatePlayerActivity(player, playerId);
-
-        // Procesamiento de hidratación cada 30 segundos (600 ticks)
-        if (player.tickCount % 600 == 0) {
-            getHydrationData(player).ifPresent(hydrationData -> {
-                try {
-                    // Calcular reducción basada en actividad acumulada
-                    float reductionAmount = calculateHydrationReductionFromActivity(player, playerId);
-
-                    // Aplicar reducción
-                    hydrationData.subtract(reductionAmount);
-
-                    // Aplicar efectos si es necesario
-                    if (hydrationData.getHydrationLevel() <= 40) {
-                        applyDehydrationEffects(player, hydrationData.getHydrationLevel());
-                    }
+        updatePlayerActivity(player, hydrationData.getActivity());
+
+        // La reducción periódica (cada 30 segundos) la aplica MetabolismScheduler en la fase
+        // del jugador, para no concentrar en un mismo tick a los que entraron juntos
+
+        // Sincronización con el cliente: una vez por segundo solo si el nivel cambió más que
+        // el umbral, y un envío forzado de mantenimiento cada syncKeepAliveTicks
+        if (player instanceof ServerPlayer serverPlayer) {
+            int keepAlive = HydrationConfig.SYNC_KEEPALIVE_TICKS.get();
+            // Desfase por la fase de MetabolismScheduler, más medio intervalo de comprobación:
+            // como el ciclo (600) es múltiplo de 20, la comprobación nunca cae en el tick del
+            // ciclo del jugador, y los que entraron juntos quedan repartidos como sus ciclos
+            int phase = metabolismPhase(serverPlayer, hydrationData);
+            long phaseTick = serverPlayer.server.getTickCount() - phase - SYNC_CHECK_OFFSET;
+            if (keepAlive > 0 && phaseTick % keepAlive == 0) {
+                PlayerStatusSync.sendHydration(serverPlayer);
+            } else if (phaseTick % 20 == 0) {
+                PlayerStatusSync.syncHydrationIfChanged(serverPlayer);
+            }
+        }
+    }
 
-                    // Aplicar daño si la hidratación es 0
-                    if (hydrationData.getHydrationLevel() <= 0) {
-                        player.hurt(player.damageSources().starve(), 2.0F); // 1 corazón
-                        LOGGER.info("Jugador completamente deshidratado, recibiendo daño: {}",
-                                player.getDisplayName().getString());
-                    }
+    /**
+     * Fase del jugador en MetabolismScheduler. Se guarda en la capability al consultarla
+     * para no buscar en el mapa del planificador cada tick.
+     */
+    private static int metabolismPhase(ServerPlayer player, IHydration hydrationData) {
+        int phase = hydrationData.getMetabolismPhase();
+        if (phase < 0) {
+            phase = MetabolismScheduler.getPhase(player.getUUID());
+            if (phase < 0) return 0; // Aún sin fase: antes del evento de conexión
+            hydrationData.setMetabolismPhase(phase);
+        }
+        return phase;
+    }
 
-                    // Sincronizar con cliente
-                    if (player instanceof ServerPlayer serverPlayer) {
-                        com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
-                    }
+    /**
+     * Ciclo de hidratación de un jugador: reducción según la actividad acumulada, efectos y
+     * daño por deshidratación. Reinicia los contadores de actividad.
+     */
+    static void processHydrationCycle(Player player) {
+        getHydrationData(player).ifPresent(hydrationData -> {
+            try {
+                HydrationTrace trace = hydrationData.getTrace();
+                long gameTime = player.level().getGameTime();
+
+                // Calcular reducción basada en actividad acumulada (reinicia los contadores)
+                PlayerActivityData activityData = hydrationData.getActivity();
+                trace.record(gameTime, HydrationTrace.ACTIVITY,
+                        (float) activityData.distanceTraveled, activityData.jumpCount);
+                float reductionAmount = calculateHydrationReductionFromActivity(player, activityData);
+
+                // Aplicar reducción
+                hydrationData.subtract(reductionAmount);
+                trace.record(gameTime, HydrationTrace.HYDRATION_CYCLE, reductionAmount,
+                        hydrationData.getHydrationLevel());
+
+                // Aplicar efectos si es necesario
+                if (hydrationData.getHydrationLevel() <= 40) {
+                    applyDehydrationEffects(player, hydrationData.getHydrationLevel());
+                }
 
-                    // Log con más detalles
-                    PlayerActivityData activityData = playerActivityMap.get(playerId);
-                    LOGGER.info("Hidratación reducida en {} para {}. Nuevo nivel: {} (Distancia: {}, Saltos: {})",
-                            reductionAmount,
-                            player.getDisplayName().getString(),
-                            hydrationData.getHydrationLevel(),
-                            String.format("%.1f", activityData != null ? activityData.distanceTraveled : 0),
-                            activityData != null ? activityData.jumpCount : 0);
-                } catch (Exception e) {
-                    LOGGER.error("Error al actualizar hidratación", e);
+                // Aplicar daño si la hidratación es 0
+                if (hydrationData.getHydrationLevel() <= 0) {
+                    player.hurt(player.damageSources().starve(), 2.0F); // 1 corazón
+                    trace.record(gameTime, HydrationTrace.DEHYDRATION_DAMAGE, 2.0F,
+                            hydrationData.getHydrationLevel());
                 }
-            });
-        }
 
-        // Sincronizamos con el cliente cada 5 segundos
-        if (player.tickCount % 100 == 0 && player instanceof ServerPlayer serverPlayer) {
-            com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
-        }
+                // Sincronizar con cliente si el cambio supera el umbral
+                if (player instanceof ServerPlayer serverPlayer) {
+                    PlayerStatusSync.syncHydrationIfChanged(serverPlayer);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error al actualizar hidratación", e);
+            }
+        });
     }
+
     /**
      * Método auxiliar para aplicar efectos de deshidratación
      */
@@ -359,17 +323,11 @@ public class PlayerHydrationManager {
             // No aplicamos daño aquí, eso lo hacemos en onPlayerTick
             // Solo efectos visuales o de juego
 
+            // Los niveles quedan en la traza del jugador (HydrationTrace)
             if (hydrationLevel <= 20 && hydrationLevel > 0) {
-                // Deshidratación moderada
-                LOGGER.info("Jugador con deshidratación severa: {}, nivel: {}",
-                        player.getDisplayName().getString(), hydrationLevel);
-
+                // Deshidratación severa
                 // Opcionalmente, puedes aplicar efectos negativos
                 // player.addEffect(new MobEffectInstance(MobEffects.MOVEMENT_SLOWDOWN, 200, 0));
-            } else if (hydrationLevel <= 40 && hydrationLevel > 20) {
-                // Deshidratación leve
-                LOGGER.debug("Jugador con deshidratación moderada: {}, nivel: {}",
-                        player.getDisplayName().getString(), hydrationLevel);
             }
         } catch (Exception e) {
             LOGGER.error("Error al aplicar efectos de deshidratación", e);
@@ -377,45 +335,40 @@ public class PlayerHydrationManager {
     }
 
 
-    // Actualiza los datos de actividad del jugador - Mejorado para detectar movimiento y saltos correctamente
-    private static void updatePlayerActivity(Player player, UUID playerId) {
-        Vec3 currentPosition = player.position();
+    // Actualiza los datos de actividad del jugador. Se llama cada tick: sin reservas de memoria
+    // ni búsquedas en mapas, todo se lee y escribe en campos primitivos
+    private static void updatePlayerActivity(Player player, PlayerActivityData activityData) {
+        double x = player.getX();
+        double z = player.getZ();
         boolean isOnGround = player.onGround();
 
-        // Obtener o crear datos de actividad para este jugador
-        PlayerActivityData activityData = playerActivityMap.computeIfAbsent(
-                playerId, id -> new PlayerActivityData(currentPosition, isOnGround));
-
         // Calcular distancia recorrida desde la última posición
-        if (activityData.lastPosition != null) {
-            double dx = currentPosition.x - activityData.lastPosition.x;
-            double dz = currentPosition.z - activityData.lastPosition.z; // Ignoramos Y para distancia horizontal
+        if (activityData.hasLastPosition) {
+            double dx = x - activityData.lastX;
+            double dz = z - activityData.lastZ; // Ignoramos Y para distancia horizontal
             double distance = Math.sqrt(dx * dx + dz * dz);
 
             // Solo considerar movimientos significativos
             if (distance > 0.05) {  // Reducido el umbral para ser más sensible
                 activityData.distanceTraveled += distance;
-                // Log detallado para depuración ocasional
-                if (player.tickCount % 100 == 0) {
-                    LOGGER.debug("Jugador {} se movió {} bloques, acumulado: {}",
-                            player.getDisplayName().getString(), String.format("%.2f", distance),
-                            String.format("%.2f", activityData.distanceTraveled));
-                }
             }
+        } else {
+            // Primer tick de esta capability: se empieza a medir desde aquí
+            activityData.hasLastPosition = true;
+            activityData.wasOnGround = isOnGround;
         }
 
         // Actualizar la posición para el próximo tick
-        activityData.lastPosition = currentPosition;
+        activityData.lastX = x;
+        activityData.lastZ = z;
 
         // Detectar saltos - Mejorado para detectar transiciones de en-suelo a no-en-suelo
-        long currentTime = System.currentTimeMillis();
         if (activityData.wasOnGround && !isOnGround && player.getDeltaMovement().y > 0.1) {
             // El jugador estaba en el suelo, ahora no lo está, y está moviéndose hacia arriba = salto
+            long currentTime = System.currentTimeMillis();
             if (currentTime - activityData.lastJumpTime > 500) { // Evitar detectar el mismo salto múltiples veces
                 activityData.jumpCount++;
                 activityData.lastJumpTime = currentTime;
-                LOGGER.debug("Jugador {} realizó un salto, total: {}",
-                        player.getDisplayName().getString(), activityData.jumpCount);
             }
         }
 
@@ -424,16 +377,10 @@ public class PlayerHydrationManager {
     }
 
     // Calcula la reducción de hidratación basada en actividad acumulada
-    private static float calculateHydrationReductionFromActivity(Player player, UUID playerId) {
+    private static float calculateHydrationReductionFromActivity(Player player, PlayerActivityData activityData) {
         // Base de reducción (siempre presente, incluso sin actividad)
         float baseReduction = 0.8F;
 
-        // Obtener datos de actividad
-        PlayerActivityData activityData = playerActivityMap.get(playerId);
-        if (activityData == null) {
-            return baseReduction; // Valor por defecto si no hay datos
-        }
-
         float activityFactor = 0.0F;
 
         // Factor por distancia recorrida (bloques)
@@ -470,13 +417,6 @@ public class PlayerHydrationManager {
         // Opcional: establecer un mínimo si no quieres que pueda ser negativo
         // totalReduction = Math.max(totalReduction, -1.0F);  // Permitir hasta -1 de "ganancia" de hidratación
 
-        // Log para debug con información detallada
-        LOGGER.debug("Actividad de {}: Distancia={} bloques, Saltos={}, Reducción={}",
-                player.getDisplayName().getString(),
-                String.format("%.1f", activityData.distanceTraveled),
-                activityData.jumpCount,
-                String.format("%.2f", totalReduction));
-
         // Reiniciar contadores después de aplicar la reducción
         activityData.distanceTraveled = 0;
         activityData.jumpCount = 0;
@@ -511,7 +451,7 @@ public class PlayerHydrationManager {
 
                     // Sincronizar siempre con el cliente
                     if (player instanceof ServerPlayer serverPlayer) {
-                        com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
+                        PlayerStatusSync.sendHydration(serverPlayer);
                         LOGGER.debug("Enviado paquete de sincronización inicial a {}", player.getName().getString());
                     }
                 });
@@ -532,32 +472,15 @@ public class PlayerHydrationManager {
             if (event.getEntity().level().isClientSide()) return;
 
             Player player = (Player) event.getEntity();
-
-            // Debug de capabilities
-            debugCapabilities(player);
-
-            ItemStack itemStack = event.getItem();
-            Item item = itemStack.getItem();
-
-            // Log para depuración
-            LOGGER.info("Jugador {} consumió item: {}",
-                    player.getDisplayName().getString(), itemStack.getDisplayName().getString());
+            Item item = event.getItem().getItem();
 
             // Verificar valor de hidratación
             float hydrationValue = com.bitzlay.ebzinventory.config.HydrationConfig.getHydrationValue(item);
 
-            // Log para depuración
-            LOGGER.info("Valor de hidratación para {}: {}",
-                    ForgeRegistries.ITEMS.getKey(item), hydrationValue);
-
-            // Procesar cualquier valor de hidratación, no solo positivos
+            // Procesar cualquier valor de hidratación, no solo positivos. addHydration deja el
+            // cambio en la traza del jugador y sincroniza con el cliente
             if (hydrationValue != 0) {
-                boolean success = addHydration(player, hydrationValue);
-                LOGGER.info("Modificar hidratación resultado: {} - Valor: {}", success, hydrationValue);
-
-                if (success && player instanceof ServerPlayer serverPlayer) {
-                    com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
-                }
+                addHydration(player, hydrationValue);
             }
         } catch (Exception e) {
             LOGGER.error("Error al procesar hidratación para item consumido", e);
@@ -583,8 +506,17 @@ public class PlayerHydrationManager {
                         LOGGER.info("Hidratación inicializada a 100 para jugador en respawn: {}",
                                 newPlayer.getName().getString());
 
+                        // Conservar la traza: lo ocurrido antes de morir es lo que interesa
+                        originalPlayer.reviveCaps();
+                        getHydrationData(originalPlayer).ifPresent(oldStore -> {
+                            newStore.getTrace().copyFrom(oldStore.getTrace());
+                            // El ciclo del jugador no se reinicia al morir
+                            newStore.setLastMetabolismTime(oldStore.getLastMetabolismTime());
+                        });
+                        originalPlayer.invalidateCaps();
+
                         if (newPlayer instanceof ServerPlayer serverPlayer) {
-                            com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
+                            PlayerStatusSync.sendHydration(serverPlayer);
                         }
                     } catch (Exception e) {
                         LOGGER.error("Error al establecer hidratación en respawn", e);
@@ -605,11 +537,14 @@ public class PlayerHydrationManager {
                                     // Copiar los valores individualmente ya que no tenemos un método copy
                                     newStore.setHydrationLevel(oldStore.getHydrationLevel());
                                     newStore.setExhaustionLevel(oldStore.getExhaustionLevel());
+                                    newStore.getActivity().copyCountersFrom(oldStore.getActivity());
+                                    newStore.getTrace().copyFrom(oldStore.getTrace());
+                                    newStore.setLastMetabolismTime(oldStore.getLastMetabolismTime());
                                     LOGGER.info("Datos de hidratación copiados para jugador en cambio dimensional: {}",
                                             newPlayer.getName().getString());
 
                                     if (newPlayer instanceof ServerPlayer serverPlayer) {
-                                        com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
+                                        PlayerStatusSync.sendHydration(serverPlayer);
                                     }
                                 } catch (Exception e) {
                                     LOGGER.error("Error al copiar datos de hidratación", e);
@@ -641,15 +576,20 @@ public class PlayerHydrationManager {
             if (!player.level().isClientSide() && player instanceof ServerPlayer serverPlayer) {
                 LOGGER.info("Sincronizando hidratación para jugador después de cambio de dimensión: {}",
                         player.getName().getString());
-                com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
+                PlayerStatusSync.sendHydration(serverPlayer);
             }
         } catch (Exception e) {
             LOGGER.error("Error en evento de cambio de dimensión", e);
         }
     }
 
-    public static PlayerActivityData getPlayerActivityData(UUID playerId) {
-        return playerActivityMap.get(playerId);
+    /**
+     * Actividad acumulada del jugador, guardada en su capability de hidratación.
+     */
+    @Nullable
+    public static PlayerActivityData getActivityData(Player player) {
+        IHydration hydrationData = getHydrationDataDirect(player);
+        return hydrationData != null ? hydrationData.getActivity() : null;
     }
 
     /**
@@ -662,7 +602,7 @@ public class PlayerHydrationManager {
             if (!player.level().isClientSide() && player instanceof ServerPlayer serverPlayer) {
                 LOGGER.info("Sincronizando hidratación para jugador después de respawn: {}",
                         player.getName().getString());
-                com.bitzlay.ebzinventory.network.HydrationSyncPacket.sendToClient(serverPlayer);
+                PlayerStatusSync.sendHydration(serverPlayer);
             }
         } catch (Exception e) {
             LOGGER.error("Error en evento de respawn", e);
@@ -0,0 +1,44 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Índice inmutable de elementos por categoría, en el orden en que se recibieron.
+ * {@link RecipeSnapshot} lo usa para las recetas; no depende de ningún tipo de Minecraft.
+ *
+ * @param <T> Tipo de los elementos indexados
+ */
+public final class CategoryIndex<T> {
+    private final Map<String, List<T>> byCategory;
+
+    private CategoryIndex(Map<String, List<T>> byCategory) {
+        this.byCategory = byCategory;
+    }
+
+    /**
+     * Agrupa los elementos por la categoría que devuelve {@code category}.
+     * Cada lista conserva el orden de {@code elements}.
+     */
+    public static <T> CategoryIndex<T> build(List<T> elements, Function<T, String> category) {
+        Map<String, List<T>> index = new LinkedHashMap<>();
+        for (T element : elements) {
+            index.computeIfAbsent(category.apply(element), k -> new ArrayList<>()).add(element);
+        }
+        index.replaceAll((key, list) -> Collections.unmodifiableList(list));
+        return new CategoryIndex<>(Collections.unmodifiableMap(index));
+    }
+
+    /**
+     * Elementos de una categoría.
+     *
+     * @return Lista inmutable (vacía si la categoría no tiene elementos)
+     */
+    public List<T> get(String category) {
+        return byCategory.getOrDefault(category, Collections.emptyList());
+    }
+}
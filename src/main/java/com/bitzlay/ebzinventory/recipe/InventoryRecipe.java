@@ -2,7 +2,10 @@ package com.bitzlay.ebzinventory.recipe;
 
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 
 public class InventoryRecipe {
     private final String id;
@@ -12,6 +15,12 @@ public class InventoryRecipe {
     private final Map<Item, Integer> ingredients;
     private final long craftingTime; // en ticks (20 ticks = 1 segundo)
 
+    // Ingredientes en forma de arrays paralelos para recorrerlos sin iteradores ni boxing
+    private final Item[] ingredientItems;
+    private final int[] ingredientAmounts;
+    // Id numérico de cada ingrediente, el que usa InventorySnapshot; se busca una sola vez
+    private final int[] ingredientIds;
+
     public InventoryRecipe(String id, String category, String displayName,
                            ItemStack result, Map<Item, Integer> ingredients,
                            long craftingTime) {
@@ -19,8 +28,19 @@ public class InventoryRecipe {
         this.category = category;
         this.displayName = displayName;
         this.result = result;
-        this.ingredients = ingredients;
+        this.ingredients = Collections.unmodifiableMap(new LinkedHashMap<>(ingredients));
         this.craftingTime = craftingTime;
+
+        this.ingredientItems = new Item[this.ingredients.size()];
+        this.ingredientAmounts = new int[this.ingredients.size()];
+        this.ingredientIds = new int[this.ingredients.size()];
+        int i = 0;
+        for (Map.Entry<Item, Integer> entry : this.ingredients.entrySet()) {
+            ingredientItems[i] = entry.getKey();
+            ingredientAmounts[i] = entry.getValue();
+            ingredientIds[i] = Item.getId(entry.getKey());
+            i++;
+        }
     }
 
     public String getId() { return id; }
@@ -29,4 +49,30 @@ public class InventoryRecipe {
     public ItemStack getResult() { return result; }
     public Map<Item, Integer> getIngredients() { return ingredients; }
     public long getCraftingTime() { return craftingTime; }
+
+    /** Número de ingredientes distintos */
+    public int getIngredientCount() { return ingredientItems.length; }
+    /** Item del ingrediente {@code index}, en el mismo orden que {@link #getIngredients()} */
+    public Item getIngredientItem(int index) { return ingredientItems[index]; }
+    /** Cantidad requerida del ingrediente {@code index} por cada unidad crafteada */
+    public int getIngredientAmount(int index) { return ingredientAmounts[index]; }
+    /** Ids numéricos de los ingredientes, en el mismo orden. Array interno: no modificar */
+    public int[] getIngredientIds() { return ingredientIds; }
+    /** Cantidades por unidad de los ingredientes, en el mismo orden. Array interno: no modificar */
+    public int[] getIngredientAmounts() { return ingredientAmounts; }
+
+    /**
+     * Compara el contenido de dos recetas (categoría, nombre, resultado con NBT,
+     * ingredientes y tiempo). Se usa para detectar recetas modificadas al recargar.
+     */
+    public boolean contentEquals(InventoryRecipe other) {
+        if (this == other) return true;
+        if (other == null) return false;
+        return id.equals(other.id)
+                && Objects.equals(category, other.category)
+                && Objects.equals(displayName, other.displayName)
+                && ItemStack.matches(result, other.result)
+                && ingredients.equals(other.ingredients)
+                && craftingTime == other.craftingTime;
+    }
 }
\ No newline at end of file
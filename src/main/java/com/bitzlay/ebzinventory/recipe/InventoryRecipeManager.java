@@ -1,135 +1,166 @@
 package com.bitzlay.ebzinventory.recipe;
 
+import com.bitzlay.ebzinventory.EbzInventory;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraftforge.registries.ForgeRegistries;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class InventoryRecipeManager {
-    private static final Map<String, InventoryRecipe> RECIPES = new HashMap<>();
+    /** Fichero de recetas por defecto */
+    public static final String RECIPE_FILE = "config/inventory_recipes.json";
+    /** Directorio de paquetes de recetas, cargados después del fichero por defecto */
+    public static final String RECIPE_DIR = "config/inventory_recipes";
+
+    /** Instantánea publicada. Se reemplaza completa en cada carga, nunca se modifica. */
+    private static final AtomicReference<RecipeSnapshot> SNAPSHOT = new AtomicReference<>(RecipeSnapshot.EMPTY);
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
-    public static void loadRecipes(String filename) {
-        File file = new File(filename);
-        if (!file.exists()) {
-            System.out.println("Recipe file not found, creating template...");
+    /**
+     * Carga las recetas del fichero clásico y de los ficheros del directorio de paquetes.
+     *
+     * @param filename  Fichero de recetas único (puede no existir si se usa el directorio)
+     * @param directory Directorio con un fichero {@code .json} por categoría o paquete
+     */
+    public static void loadRecipes(String filename, String directory) {
+        List<File> sources = RecipePackLoader.listSources(new File(filename), new File(directory));
+        if (sources.isEmpty()) {
+            EbzInventory.LOGGER.info("⚙️ No existe {}, creando plantilla de recetas", filename);
             saveRecipeTemplate(filename);
             return;
         }
 
-        try (Reader reader = new FileReader(file)) {
-            Map<String, Object> jsonMap = GSON.fromJson(reader, Map.class);
-
-            if (!jsonMap.containsKey("recipes")) {
-                System.err.println("Error: Invalid recipe file format. Missing 'recipes' array.");
-                return;
-            }
-
-            RECIPES.clear();
+        long start = System.nanoTime();
 
-            List<Map<String, Object>> recipes = (List<Map<String, Object>>) jsonMap.get("recipes");
-            for (Map<String, Object> recipeMap : recipes) {
-                try {
-                    loadRecipe(recipeMap);
-                } catch (Exception e) {
-                    System.err.println("Error loading recipe: " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading recipes: " + e.getMessage());
-            e.printStackTrace();
+        // Si nada cambió desde la última carga, la caché binaria evita el JSON por completo
+        byte[] key = cacheKey(sources);
+        RecipeSnapshot.Builder cached = key != null ? RecipeCache.read(RecipeCache.CACHE_FILE, key) : null;
+        if (cached != null) {
+            RecipeSnapshot snapshot = publish(cached);
+            EbzInventory.LOGGER.info("✅ {} recetas cargadas desde caché en {} ms",
+                    snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+            return;
         }
-    }
-
-    private static void loadRecipe(Map<String, Object> recipeMap) {
-        String category = (String) recipeMap.get("category");
-        String recipeId = (String) recipeMap.get("recipeId");
-        String displayName = (String) recipeMap.get("displayName");
-        ItemStack resultStack = createItemWithNBT(
-                (String) recipeMap.get("result"),
-                (Map<String, Object>) recipeMap.get("nbt")
-        );
 
-        if (resultStack.isEmpty()) return;
+        RecipeLoadResult result = RecipePackLoader.load(sources);
+        logErrors(result);
 
-        Map<String, Double> rawIngredients = (Map<String, Double>) recipeMap.get("ingredients");
-        Map<Item, Integer> ingredients = new HashMap<>();
-
-        for (Map.Entry<String, Double> entry : rawIngredients.entrySet()) {
-            Item item = ForgeRegistries.ITEMS.getValue(new ResourceLocation(entry.getKey()));
-            if (item != null) {
-                ingredients.put(item, entry.getValue().intValue());
-            }
+        // En la carga inicial se publican las recetas válidas aunque alguna entrada falle
+        if (result.isReadable()) {
+            RecipeSnapshot snapshot = publish(result.getBuilder());
+            EbzInventory.LOGGER.info("✅ {} recetas cargadas de {} ficheros en {} ms",
+                    snapshot.size(), sources.size(), (System.nanoTime() - start) / 1_000_000);
+            RecipePackLoader.logReport(result);
         }
 
-        // Obtener el tiempo de crafteo, usar 100 ticks (5 segundos) por defecto si no está especificado
-        long craftingTime = 100;
-        if (recipeMap.containsKey("craftingTime")) {
-            Object timeObj = recipeMap.get("craftingTime");
-            if (timeObj instanceof Number) {
-                craftingTime = ((Number) timeObj).longValue();
-            }
+        // Solo se guarda en caché un conjunto sin errores, para que éstos se sigan notificando
+        if (result.isValid() && key != null) {
+            RecipeCache.write(RecipeCache.CACHE_FILE, key, result.getBuilder().values());
         }
-
-        InventoryRecipe recipe = new InventoryRecipe(
-                recipeId,
-                category,
-                displayName,
-                resultStack,
-                ingredients,
-                craftingTime
-        );
-
-        addRecipe(recipe);
-        System.out.println("Loaded recipe: " + displayName + " (Crafting Time: " + craftingTime + " ticks)");
     }
 
-    private static ItemStack createItemWithNBT(String itemId, Map<String, Object> nbt) {
+    /**
+     * Clave de caché de los ficheros de origen, o null si no pudieron leerse.
+     */
+    public static byte[] cacheKey(List<File> sources) {
         try {
-            if (itemId == null || itemId.isEmpty()) {
-                System.err.println("Error: itemId is null or empty");
-                return ItemStack.EMPTY;
-            }
+            return RecipeCache.computeKey(sources);
+        } catch (IOException e) {
+            EbzInventory.LOGGER.warn("⚠️ No se pudo calcular la clave de caché de recetas: {}", e.toString());
+            return null;
+        }
+    }
 
-            ResourceLocation itemLocation = new ResourceLocation(itemId);
-            Item item = ForgeRegistries.ITEMS.getValue(itemLocation);
+    /**
+     * Lee y valida un fichero de recetas sin publicar nada.
+     * Puede llamarse desde cualquier hilo una vez congelados los registros.
+     *
+     * @param file Fichero JSON de recetas
+     * @return Recetas válidas y errores encontrados
+     */
+    public static RecipeLoadResult parseRecipes(File file) {
+        RecipeLoadResult result = new RecipeLoadResult(file.getPath());
+        // Las recetas suelen repetir ingredientes: resolvemos cada ID una sola vez por carga
+        Map<String, Item> resolved = new HashMap<>();
+
+        try (JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16))) {
+            RecipeJsonParser.parse(reader, result, definition -> {
+                InventoryRecipe recipe = resolve(definition, resolved, result);
+                if (recipe == null) return;
+                if (result.getBuilder().contains(recipe.getId())) {
+                    result.error(definition.getLocation() + ": recipeId duplicado en el mismo fichero; se ignora");
+                    return;
+                }
+                result.getBuilder().add(recipe);
+            });
+        } catch (IOException e) {
+            result.fatal("error de lectura: " + e.getMessage());
+        }
+        return result;
+    }
 
-            if (item == null) {
-                System.err.println("Error: Could not find item with ID: " + itemId);
-                return ItemStack.EMPTY;
-            }
+    /**
+     * Escribe en el log los errores de una carga. Los resultados de {@link RecipePackLoader}
+     * ya llevan el fichero de origen en cada mensaje.
+     */
+    public static void logErrors(RecipeLoadResult result) {
+        for (String error : result.getErrors()) {
+            EbzInventory.LOGGER.warn("⚠️ {}", error);
+        }
+    }
 
-            ItemStack stack = new ItemStack(item);
+    /**
+     * Resuelve los IDs de una definición contra el registro de items.
+     *
+     * @return La receta, o null si algún item no existe (el error queda registrado)
+     */
+    private static InventoryRecipe resolve(RecipeDefinition definition, Map<String, Item> resolved, RecipeLoadResult result) {
+        Item resultItem = lookupItem(definition.getResultId(), resolved);
+        if (resultItem == null) {
+            result.error(definition.getLocation() + ": item resultado desconocido " + definition.getResultId());
+            return null;
+        }
 
-            if (nbt != null && !nbt.isEmpty()) {
-                CompoundTag nbtTag = new CompoundTag();
-                for (Map.Entry<String, Object> entry : nbt.entrySet()) {
-                    addNBTValue(nbtTag, entry.getKey(), entry.getValue());
-                }
-                stack.setTag(nbtTag);
+        Map<Item, Integer> ingredients = new LinkedHashMap<>();
+        for (int i = 0; i < definition.getIngredientCount(); i++) {
+            Item item = lookupItem(definition.getIngredientId(i), resolved);
+            if (item == null) {
+                result.error(definition.getLocation() + ": ingrediente desconocido " + definition.getIngredientId(i));
+                return null;
             }
+            ingredients.merge(item, definition.getIngredientAmount(i), Integer::sum);
+        }
 
-            return stack;
-        } catch (Exception e) {
-            System.err.println("Error creating item with NBT: " + e.getMessage());
-            e.printStackTrace();
-            return ItemStack.EMPTY;
+        ItemStack resultStack = new ItemStack(resultItem);
+        if (definition.getNbt() != null) {
+            resultStack.setTag(definition.getNbt().copy());
         }
+
+        return new InventoryRecipe(
+                definition.getRecipeId(),
+                definition.getCategory(),
+                definition.getDisplayName(),
+                resultStack,
+                ingredients,
+                definition.getCraftingTime()
+        );
     }
 
-    private static void addNBTValue(CompoundTag tag, String key, Object value) {
-        if (value instanceof String) {
-            tag.putString(key, (String) value);
-        } else if (value instanceof Number) {
-            tag.putInt(key, ((Number) value).intValue());
-        } else if (value instanceof Boolean) {
-            tag.putBoolean(key, (Boolean) value);
-        }
+    private static Item lookupItem(String id, Map<String, Item> resolved) {
+        return resolved.computeIfAbsent(id, key -> {
+            ResourceLocation location = ResourceLocation.tryParse(key);
+            // getValue devuelve el item por defecto (aire) si la clave no existe
+            if (location == null || !ForgeRegistries.ITEMS.containsKey(location)) return null;
+            return ForgeRegistries.ITEMS.getValue(location);
+        });
     }
 
     private static void saveRecipeTemplate(String filename) {
@@ -168,30 +199,67 @@ public class InventoryRecipeManager {
                 GSON.toJson(root, writer);
             }
         } catch (IOException e) {
-            System.err.println("Error saving recipe template: " + e.getMessage());
-            e.printStackTrace();
+            EbzInventory.LOGGER.error("❌ Error al guardar la plantilla de recetas", e);
         }
     }
 
+    /**
+     * Publica un nuevo conjunto de recetas con un único intercambio atómico.
+     *
+     * @param builder Recetas ya cargadas
+     * @return La instantánea publicada
+     */
+    public static RecipeSnapshot publish(RecipeSnapshot.Builder builder) {
+        return SNAPSHOT.updateAndGet(previous -> builder.build(previous.getVersion() + 1));
+    }
+
+    /**
+     * Publica un conjunto vacío (por ejemplo, al desconectarse de un servidor).
+     */
+    public static void clear() {
+        publish(new RecipeSnapshot.Builder());
+    }
+
+    /**
+     * Añade o reemplaza una receta publicando una copia de la instantánea actual.
+     * Pensado para registros puntuales; las cargas masivas deben usar {@link #publish}.
+     */
     public static void addRecipe(InventoryRecipe recipe) {
-        RECIPES.put(recipe.getId(), recipe);
+        SNAPSHOT.updateAndGet(previous -> previous.toBuilder().add(recipe).build(previous.getVersion() + 1));
+    }
+
+    /**
+     * Obtiene la instantánea actual. Es inmutable y puede consultarse desde cualquier hilo.
+     */
+    public static RecipeSnapshot getSnapshot() {
+        return SNAPSHOT.get();
     }
 
     public static InventoryRecipe getRecipe(String id) {
-        return RECIPES.get(id);
+        return SNAPSHOT.get().getRecipe(id);
     }
 
+    /**
+     * Recetas de una categoría en orden estable.
+     *
+     * @return Lista precalculada e inmutable; no debe modificarse
+     */
     public static List<InventoryRecipe> getRecipesByCategory(String category) {
-        List<InventoryRecipe> categoryRecipes = new ArrayList<>();
-        for (InventoryRecipe recipe : RECIPES.values()) {
-            if (recipe.getCategory().equals(category)) {
-                categoryRecipes.add(recipe);
-            }
-        }
-        return categoryRecipes;
+        return SNAPSHOT.get().getRecipesByCategory(category);
+    }
+
+    public static List<InventoryRecipe> getRecipesByResult(Item item) {
+        return SNAPSHOT.get().getRecipesByResult(item);
+    }
+
+    /**
+     * Recetas que consumen el item indicado, sin recorrer el conjunto completo.
+     */
+    public static List<InventoryRecipe> getRecipesUsing(Item item) {
+        return SNAPSHOT.get().getRecipesUsing(item);
     }
 
     public static Map<String, InventoryRecipe> getAllRecipes() {
-        return RECIPES;
+        return SNAPSHOT.get().asMap();
     }
-}
\ No newline at end of file
+}
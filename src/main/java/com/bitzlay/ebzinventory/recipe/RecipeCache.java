@@ -0,0 +1,285 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché binaria del conjunto de recetas ya resuelto.
+ *
+ * La clave es un SHA-256 de las rutas y el contenido de los ficheros de origen y de la
+ * huella del registro de items; si coincide, el fichero se lee de una vez en un buffer y se
+ * decodifica directamente, sin JSON ni {@code ResourceLocation} por receta. No se mapea en
+ * memoria: un mapeo vivo impediría reemplazar el fichero en Windows hasta que el recolector
+ * lo liberase. Los items se guardan por nombre en una
+ * tabla al principio del fichero (los IDs numéricos cambian entre sesiones), de modo que
+ * cada nombre se resuelve una sola vez.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * int magic, int versión, byte[32] clave
+ * int nItems, nItems × texto
+ * int nRecetas, por receta:
+ *   texto id, texto categoría, texto nombre, int item resultado,
+ *   int bytes NBT (-1 si no hay) + bytes, long tiempo,
+ *   int nIngredientes, nIngredientes × (int item, int cantidad)
+ * </pre>
+ * Los textos son int longitud + bytes UTF-8.
+ */
+public final class RecipeCache {
+    /** Ubicación por defecto de la caché, relativa al directorio del juego */
+    public static final Path CACHE_FILE = Paths.get("cache", EbzInventory.MOD_ID, "recipes.bin");
+
+    private static final int MAGIC = 0x45425A52; // "EBZR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int KEY_LENGTH = 32;
+
+    private RecipeCache() {
+    }
+
+    /**
+     * Calcula la clave de caché de un conjunto de ficheros de origen.
+     *
+     * @param sources Ficheros de recetas, en el orden en que se cargan
+     * @return Hash de rutas relativas, contenidos, versión de formato y huella del registro
+     */
+    public static byte[] computeKey(List<File> sources) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer header = ByteBuffer.allocate(12);
+        header.putInt(FORMAT_VERSION).putLong(registryFingerprint());
+        digest.update(header.array());
+
+        for (File source : sources) {
+            digest.update(relativePath(source).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            try (InputStream in = Files.newInputStream(source.toPath())) {
+                byte[] buffer = new byte[1 << 16];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            digest.update((byte) 0);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Ruta del fichero relativa al directorio del juego, con '/' como separador: dos
+     * {@code foo.json} en carpetas distintas dan claves distintas, y mover la instancia
+     * entera no invalida la caché.
+     */
+    private static String relativePath(File source) {
+        Path absolute = source.toPath().toAbsolutePath().normalize();
+        Path path;
+        try {
+            path = Paths.get("").toAbsolutePath().relativize(absolute);
+        } catch (IllegalArgumentException e) {
+            // Otra unidad u otra raíz: no hay ruta relativa posible
+            path = absolute;
+        }
+        return path.toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Huella del registro de items: independiente del orden, cambia si se añade o quita un item.
+     */
+    private static long registryFingerprint() {
+        long fingerprint = 0;
+        int count = 0;
+        for (ResourceLocation key : ForgeRegistries.ITEMS.getKeys()) {
+            long h = key.toString().hashCode() * 0x9E3779B97F4A7C15L;
+            fingerprint += h ^ (h >>> 29);
+            count++;
+        }
+        return fingerprint * 31 + count;
+    }
+
+    /**
+     * Carga la caché si existe y corresponde a la clave.
+     *
+     * @return Recetas de la caché, o null si no existe, no coincide o está dañada
+     */
+    public static RecipeSnapshot.Builder read(Path cacheFile, byte[] key) {
+        if (!Files.isRegularFile(cacheFile)) return null;
+
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) return null;
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) return null;
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) return null;
+            byte[] storedKey = new byte[KEY_LENGTH];
+            buffer.get(storedKey);
+            if (!Arrays.equals(storedKey, key)) return null;
+
+            int itemCount = buffer.getInt();
+            Item[] items = new Item[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                String name = readString(buffer);
+                ResourceLocation location = ResourceLocation.tryParse(name);
+                if (location == null || !ForgeRegistries.ITEMS.containsKey(location)) {
+                    EbzInventory.LOGGER.debug("Caché de recetas obsoleta: falta el item {}", name);
+                    return null;
+                }
+                items[i] = ForgeRegistries.ITEMS.getValue(location);
+            }
+
+            RecipeSnapshot.Builder builder = new RecipeSnapshot.Builder();
+            int recipeCount = buffer.getInt();
+            for (int r = 0; r < recipeCount; r++) {
+                String id = readString(buffer);
+                String category = readString(buffer);
+                String displayName = readString(buffer);
+                ItemStack result = new ItemStack(items[buffer.getInt()]);
+
+                int nbtLength = buffer.getInt();
+                if (nbtLength >= 0) {
+                    byte[] nbt = new byte[nbtLength];
+                    buffer.get(nbt);
+                    result.setTag(NbtIo.read(new DataInputStream(new ByteArrayInputStream(nbt))));
+                }
+
+                long craftingTime = buffer.getLong();
+                int ingredientCount = buffer.getInt();
+                Map<Item, Integer> ingredients = new LinkedHashMap<>();
+                for (int i = 0; i < ingredientCount; i++) {
+                    Item item = items[buffer.getInt()];
+                    ingredients.put(item, buffer.getInt());
+                }
+
+                builder.add(new InventoryRecipe(id, category, displayName, result, ingredients, craftingTime));
+            }
+            return builder;
+        } catch (IOException | RuntimeException e) {
+            // Caché truncada o de otro formato: se regenera desde el JSON
+            EbzInventory.LOGGER.warn("⚠️ Caché de recetas ilegible, se ignorará: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe la caché de forma atómica (fichero temporal escrito por un canal + renombrado).
+     * Un fallo al escribir no es grave: la siguiente carga usará el JSON.
+     */
+    public static void write(Path cacheFile, byte[] key, Collection<InventoryRecipe> recipes) {
+        Map<Item, Integer> itemIndex = new HashMap<>();
+        ByteArrayOutputStream itemTable = new ByteArrayOutputStream();
+        ByteArrayOutputStream recipeTable = new ByteArrayOutputStream();
+
+        try {
+            DataOutputStream itemsOut = new DataOutputStream(itemTable);
+            DataOutputStream out = new DataOutputStream(recipeTable);
+            for (InventoryRecipe recipe : recipes) {
+                writeString(out, recipe.getId());
+                writeString(out, recipe.getCategory());
+                writeString(out, recipe.getDisplayName());
+                out.writeInt(indexOf(recipe.getResult().getItem(), itemIndex, itemsOut));
+
+                CompoundTag tag = recipe.getResult().getTag();
+                if (tag == null) {
+                    out.writeInt(-1);
+                } else {
+                    ByteArrayOutputStream nbt = new ByteArrayOutputStream();
+                    NbtIo.write(tag, new DataOutputStream(nbt));
+                    out.writeInt(nbt.size());
+                    nbt.writeTo(out);
+                }
+
+                out.writeLong(recipe.getCraftingTime());
+                out.writeInt(recipe.getIngredientCount());
+                for (int i = 0; i < recipe.getIngredientCount(); i++) {
+                    out.writeInt(indexOf(recipe.getIngredientItem(i), itemIndex, itemsOut));
+                    out.writeInt(recipe.getIngredientAmount(i));
+                }
+            }
+
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            ByteBuffer header = ByteBuffer.allocate(12 + KEY_LENGTH);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).put(key).putInt(itemIndex.size()).flip();
+            ByteBuffer recipeCount = ByteBuffer.allocate(4).putInt(recipes.size()).flip();
+            ByteBuffer[] parts = {
+                    header,
+                    ByteBuffer.wrap(itemTable.toByteArray()),
+                    recipeCount,
+                    ByteBuffer.wrap(recipeTable.toByteArray())
+            };
+            try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ByteBuffer part : parts) {
+                    while (part.hasRemaining()) {
+                        file.write(part);
+                    }
+                }
+                file.force(false);
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            EbzInventory.LOGGER.warn("⚠️ No se pudo escribir la caché de recetas: {}", e.toString());
+        }
+    }
+
+    private static int indexOf(Item item, Map<Item, Integer> itemIndex, DataOutputStream itemsOut) throws IOException {
+        Integer index = itemIndex.get(item);
+        if (index == null) {
+            index = itemIndex.size();
+            itemIndex.put(item, index);
+            writeString(itemsOut, String.valueOf(ForgeRegistries.ITEMS.getKey(item)));
+        }
+        return index;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las JVM deben incluir SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
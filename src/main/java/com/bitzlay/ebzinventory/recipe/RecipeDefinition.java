@@ -0,0 +1,45 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import net.minecraft.nbt.CompoundTag;
+
+/**
+ * Receta tal como aparece en el fichero, antes de resolver los items en el registro.
+ * Los campos ya tienen su tipo definitivo; solo los IDs de item quedan como texto.
+ */
+public final class RecipeDefinition {
+    private final String recipeId;
+    private final String category;
+    private final String displayName;
+    private final String resultId;
+    private final CompoundTag nbt;
+    private final String[] ingredientIds;
+    private final int[] ingredientAmounts;
+    private final long craftingTime;
+    private final String location;
+
+    RecipeDefinition(String recipeId, String category, String displayName, String resultId, CompoundTag nbt,
+                     String[] ingredientIds, int[] ingredientAmounts, long craftingTime, String location) {
+        this.recipeId = recipeId;
+        this.category = category;
+        this.displayName = displayName;
+        this.resultId = resultId;
+        this.nbt = nbt;
+        this.ingredientIds = ingredientIds;
+        this.ingredientAmounts = ingredientAmounts;
+        this.craftingTime = craftingTime;
+        this.location = location;
+    }
+
+    public String getRecipeId() { return recipeId; }
+    public String getCategory() { return category; }
+    public String getDisplayName() { return displayName; }
+    public String getResultId() { return resultId; }
+    /** NBT del resultado, o null si la receta no define ninguno */
+    public CompoundTag getNbt() { return nbt; }
+    public int getIngredientCount() { return ingredientIds.length; }
+    public String getIngredientId(int index) { return ingredientIds[index]; }
+    public int getIngredientAmount(int index) { return ingredientAmounts[index]; }
+    public long getCraftingTime() { return craftingTime; }
+    /** Posición de la receta en el fichero (línea, columna y ruta JSON), para los mensajes de error */
+    public String getLocation() { return location; }
+}
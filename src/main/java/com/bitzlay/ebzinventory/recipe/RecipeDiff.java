@@ -0,0 +1,67 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diferencias por ID entre dos instantáneas de recetas.
+ */
+public final class RecipeDiff {
+    private final List<String> added;
+    private final List<String> removed;
+    private final List<String> changed;
+
+    private RecipeDiff(List<String> added, List<String> removed, List<String> changed) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.changed = Collections.unmodifiableList(changed);
+    }
+
+    /**
+     * Compara dos instantáneas. Los IDs se listan en el orden de carga de cada una.
+     */
+    public static RecipeDiff between(RecipeSnapshot previous, RecipeSnapshot next) {
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+
+        Map<String, InventoryRecipe> before = previous.asMap();
+        for (InventoryRecipe recipe : next.getRecipes()) {
+            InventoryRecipe old = before.get(recipe.getId());
+            if (old == null) {
+                added.add(recipe.getId());
+            } else if (!old.contentEquals(recipe)) {
+                changed.add(recipe.getId());
+            }
+        }
+        for (InventoryRecipe recipe : previous.getRecipes()) {
+            if (next.getRecipe(recipe.getId()) == null) {
+                removed.add(recipe.getId());
+            }
+        }
+        return new RecipeDiff(added, removed, changed);
+    }
+
+    public List<String> getAdded() {
+        return added;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " añadidas, " + removed.size() + " eliminadas, " + changed.size() + " modificadas";
+    }
+}
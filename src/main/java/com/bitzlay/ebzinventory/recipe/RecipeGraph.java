@@ -0,0 +1,258 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grafo de subcomponentes de una {@link RecipeSnapshot}: para cada item que alguna receta
+ * produce, qué receta lo fabrica y de qué ingredientes depende.
+ *
+ * Todo se resuelve una vez al construir el grafo y queda memorizado por item: la receta
+ * productora (la primera en orden de carga), la altura (longitud de la cadena más larga de
+ * subcomponentes por debajo del item) y si el item forma parte de un ciclo. Los items en
+ * ciclos (A se fabrica con B y B con A) no se expanden: se tratan como materia prima. Así
+ * un planificador solo consulta nodos ya resueltos y nunca recorre el conjunto de recetas.
+ *
+ * Es inmutable y puede consultarse desde cualquier hilo.
+ */
+public final class RecipeGraph {
+    /**
+     * Item del grafo con su resolución memorizada.
+     */
+    public static final class Node {
+        private final Item item;
+        private InventoryRecipe producer;
+        private Node[] inputs = new Node[0];
+        private int[] inputAmounts = new int[0];
+        private int height;
+        private boolean cyclic;
+
+        private Node(Item item) {
+            this.item = item;
+        }
+
+        public Item getItem() {
+            return item;
+        }
+
+        /**
+         * Receta que fabrica el item, o null si es materia prima o está en un ciclo.
+         */
+        public InventoryRecipe getProducer() {
+            return producer;
+        }
+
+        /**
+         * Indica si el item puede fabricarse a partir de otros.
+         */
+        public boolean isCraftable() {
+            return producer != null;
+        }
+
+        /**
+         * Ingredientes de la receta productora, en el orden de la receta.
+         */
+        public int getInputCount() {
+            return inputs.length;
+        }
+
+        public Node getInput(int index) {
+            return inputs[index];
+        }
+
+        /**
+         * Cantidad del ingrediente {@code index} por cada unidad de la receta productora.
+         */
+        public int getInputAmount(int index) {
+            return inputAmounts[index];
+        }
+
+        /**
+         * Cadena más larga de subcomponentes bajo el item; 0 para materias primas. Un item
+         * siempre tiene más altura que cualquiera de sus ingredientes.
+         */
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Indica si el item quedó excluido por formar parte de un ciclo de recetas.
+         */
+        public boolean isCyclic() {
+            return cyclic;
+        }
+    }
+
+    private final Map<Item, Node> nodes;
+    private final int maxHeight;
+    private final int cyclicItems;
+
+    private RecipeGraph(Map<Item, Node> nodes, int maxHeight, int cyclicItems) {
+        this.nodes = nodes;
+        this.maxHeight = maxHeight;
+        this.cyclicItems = cyclicItems;
+    }
+
+    /**
+     * Nodo de un item. Los items que ninguna receta menciona no tienen nodo.
+     */
+    public Node getNode(Item item) {
+        return nodes.get(item);
+    }
+
+    /**
+     * Altura máxima de cualquier nodo del grafo.
+     */
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * Número de items excluidos por ciclos.
+     */
+    public int getCyclicItemCount() {
+        return cyclicItems;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    static RecipeGraph build(List<InventoryRecipe> recipes) {
+        Map<Item, Node> nodes = new IdentityHashMap<>();
+
+        // 1. Un nodo por item mencionado; el productor es la primera receta que lo fabrica
+        for (InventoryRecipe recipe : recipes) {
+            Node node = nodes.computeIfAbsent(recipe.getResult().getItem(), Node::new);
+            if (node.producer == null && recipe.getResult().getCount() > 0) {
+                node.producer = recipe;
+            }
+            for (int i = 0; i < recipe.getIngredientCount(); i++) {
+                nodes.computeIfAbsent(recipe.getIngredientItem(i), Node::new);
+            }
+        }
+        for (Node node : nodes.values()) {
+            InventoryRecipe producer = node.producer;
+            if (producer == null) continue;
+            node.inputs = new Node[producer.getIngredientCount()];
+            node.inputAmounts = new int[producer.getIngredientCount()];
+            for (int i = 0; i < node.inputs.length; i++) {
+                node.inputs[i] = nodes.get(producer.getIngredientItem(i));
+                node.inputAmounts[i] = producer.getIngredientAmount(i);
+            }
+        }
+
+        // 2. Los ciclos se rompen dejando sus items como materia prima
+        List<Node> order = new ArrayList<>(nodes.size());
+        int cyclicItems = markCycles(nodes, order);
+
+        // 3. Alturas en orden topológico inverso: los ingredientes salen antes que sus productos
+        int maxHeight = 0;
+        for (Node node : order) {
+            int height = 0;
+            for (Node input : node.inputs) {
+                height = Math.max(height, input.height + 1);
+            }
+            node.height = node.producer != null ? height : 0;
+            maxHeight = Math.max(maxHeight, node.height);
+        }
+        return new RecipeGraph(Collections.unmodifiableMap(nodes), maxHeight, cyclicItems);
+    }
+
+    /**
+     * Algoritmo de Tarjan iterativo sobre las aristas item → ingrediente. Marca como cíclicos
+     * los componentes con más de un item o con una arista a sí mismos, y deja en
+     * {@code order} todos los nodos con los ingredientes antes que sus productos.
+     *
+     * @return Número de items marcados
+     */
+    private static int markCycles(Map<Item, Node> nodes, List<Node> order) {
+        Map<Node, int[]> state = new IdentityHashMap<>(nodes.size());  // {índice, lowlink, en pila}
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<int[]> frames = new ArrayDeque<>();                       // {siguiente ingrediente}
+        Deque<Node> path = new ArrayDeque<>();
+        List<List<Node>> components = new ArrayList<>();
+        int index = 0;
+
+        for (Node root : nodes.values()) {
+            if (state.containsKey(root)) continue;
+
+            state.put(root, new int[]{index, index, 1});
+            index++;
+            stack.push(root);
+            path.push(root);
+            frames.push(new int[]{0});
+
+            while (!path.isEmpty()) {
+                Node node = path.peek();
+                int[] frame = frames.peek();
+                int[] nodeState = state.get(node);
+
+                if (frame[0] < node.inputs.length) {
+                    Node input = node.inputs[frame[0]++];
+                    int[] inputState = state.get(input);
+                    if (inputState == null) {
+                        state.put(input, new int[]{index, index, 1});
+                        index++;
+                        stack.push(input);
+                        path.push(input);
+                        frames.push(new int[]{0});
+                    } else if (inputState[2] == 1) {
+                        nodeState[1] = Math.min(nodeState[1], inputState[0]);
+                    }
+                    continue;
+                }
+
+                path.pop();
+                frames.pop();
+                if (!path.isEmpty()) {
+                    int[] parentState = state.get(path.peek());
+                    parentState[1] = Math.min(parentState[1], nodeState[1]);
+                }
+                if (nodeState[1] == nodeState[0]) {
+                    List<Node> component = new ArrayList<>();
+                    Node member;
+                    do {
+                        member = stack.pop();
+                        state.get(member)[2] = 0;
+                        component.add(member);
+                    } while (member != node);
+                    components.add(component);
+                }
+            }
+        }
+
+        // Tarjan emite los componentes con los ingredientes antes que sus productos
+        int cyclicItems = 0;
+        for (List<Node> component : components) {
+            boolean cyclic = component.size() > 1;
+            if (!cyclic) {
+                Node single = component.get(0);
+                for (Node input : single.inputs) {
+                    if (input == single) {
+                        cyclic = true;
+                        break;
+                    }
+                }
+            }
+            for (Node member : component) {
+                if (cyclic) {
+                    member.cyclic = true;
+                    member.producer = null;
+                    member.inputs = new Node[0];
+                    member.inputAmounts = new int[0];
+                    cyclicItems++;
+                }
+                order.add(member);
+            }
+        }
+        return cyclicItems;
+    }
+}
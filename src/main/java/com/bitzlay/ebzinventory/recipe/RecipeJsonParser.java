@@ -0,0 +1,257 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import net.minecraft.nbt.CompoundTag;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Lector en streaming del formato de recetas.
+ *
+ * Recorre el JSON con un {@link JsonReader} y entrega cada receta como un
+ * {@link RecipeDefinition} tipado en cuanto termina de leerla, sin construir el árbol del
+ * documento. Una entrada con campos incorrectos se descarta (con su línea y columna en el
+ * error) y la lectura continúa; solo un JSON sintácticamente roto detiene el fichero.
+ */
+public final class RecipeJsonParser {
+    /** Tiempo de crafteo por defecto: 100 ticks (5 segundos) */
+    public static final long DEFAULT_CRAFTING_TIME = 100;
+
+    private static final String[] NO_IDS = new String[0];
+    private static final int[] NO_AMOUNTS = new int[0];
+
+    private RecipeJsonParser() {
+    }
+
+    /**
+     * Lee un documento {@code {"recipes": [...]}} completo.
+     *
+     * @param reader Lector JSON; se configura en modo permisivo como hacía Gson
+     * @param result Destino de los errores
+     * @param sink   Recibe cada receta bien formada, en orden de aparición
+     */
+    public static void parse(JsonReader reader, RecipeLoadResult result, Consumer<RecipeDefinition> sink) {
+        reader.setLenient(true);
+        boolean foundRecipes = false;
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                result.fatal(where(reader) + ": se esperaba un objeto raíz");
+                return;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("recipes".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    foundRecipes = true;
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        RecipeDefinition definition = readRecipe(reader, result);
+                        if (definition != null) {
+                            sink.accept(definition);
+                        }
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (MalformedJsonException | IllegalStateException e) {
+            // El mensaje de Gson ya incluye línea, columna y ruta
+            result.fatal("JSON inválido: " + e.getMessage());
+            return;
+        } catch (IOException e) {
+            result.fatal("error de lectura: " + e.getMessage());
+            return;
+        }
+
+        if (!foundRecipes) {
+            result.fatal("falta el array 'recipes'");
+        }
+    }
+
+    private static RecipeDefinition readRecipe(JsonReader reader, RecipeLoadResult result) throws IOException {
+        String location = where(reader);
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            result.error(location + ": se esperaba un objeto de receta");
+            reader.skipValue();
+            return null;
+        }
+
+        int errorsBefore = result.getErrors().size();
+        String recipeId = null;
+        String category = null;
+        String displayName = null;
+        String resultId = null;
+        CompoundTag nbt = null;
+        String[] ingredientIds = null;
+        int[] ingredientAmounts = NO_AMOUNTS;
+        long craftingTime = DEFAULT_CRAFTING_TIME;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "recipeId" -> recipeId = readString(reader, result);
+                case "category" -> category = readString(reader, result);
+                case "displayName" -> displayName = readString(reader, result);
+                case "result" -> resultId = readString(reader, result);
+                case "nbt" -> nbt = readNbt(reader, result);
+                case "craftingTime" -> craftingTime = readCraftingTime(reader, result, craftingTime);
+                case "ingredients" -> {
+                    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                        result.error(where(reader) + ": 'ingredients' debe ser un objeto id -> cantidad");
+                        reader.skipValue();
+                        break;
+                    }
+                    String[] ids = new String[4];
+                    int[] amounts = new int[4];
+                    int count = 0;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String id = reader.nextName();
+                        long amount = readPositive(reader, result);
+                        if (amount <= 0) continue;
+                        if (amount > Integer.MAX_VALUE) {
+                            result.error(where(reader) + ": cantidad demasiado grande");
+                            continue;
+                        }
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                            amounts = Arrays.copyOf(amounts, count * 2);
+                        }
+                        ids[count] = id;
+                        amounts[count] = (int) amount;
+                        count++;
+                    }
+                    reader.endObject();
+                    ingredientIds = count == 0 ? NO_IDS : Arrays.copyOf(ids, count);
+                    ingredientAmounts = count == 0 ? NO_AMOUNTS : Arrays.copyOf(amounts, count);
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        String label = recipeId != null ? location + " (" + recipeId + ")" : location;
+        if (recipeId == null || recipeId.isEmpty()) {
+            result.error(label + ": falta 'recipeId'");
+        }
+        if (category == null || category.isEmpty()) {
+            result.error(label + ": falta 'category'");
+        }
+        if (resultId == null || resultId.isEmpty()) {
+            result.error(label + ": falta 'result'");
+        }
+        if (ingredientIds == null) {
+            result.error(label + ": falta 'ingredients'");
+        }
+        if (result.getErrors().size() != errorsBefore) {
+            return null;
+        }
+
+        return new RecipeDefinition(
+                recipeId,
+                category,
+                displayName != null ? displayName : recipeId,
+                resultId,
+                nbt,
+                ingredientIds,
+                ingredientAmounts,
+                craftingTime,
+                label
+        );
+    }
+
+    private static String readString(JsonReader reader, RecipeLoadResult result) throws IOException {
+        if (reader.peek() != JsonToken.STRING) {
+            result.error(where(reader) + ": se esperaba texto");
+            reader.skipValue();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * Lee el tiempo de crafteo. Como el lector anterior, acepta cualquier número (truncado a
+     * entero); un valor menor que 1 tick no descarta la receta: se ajusta a 1 con un aviso.
+     *
+     * @return El tiempo leído, o {@code fallback} si no es un número (el error ya queda registrado)
+     */
+    private static long readCraftingTime(JsonReader reader, RecipeLoadResult result, long fallback) throws IOException {
+        String location = where(reader);
+        if (reader.peek() != JsonToken.NUMBER) {
+            result.error(location + ": se esperaba un número");
+            reader.skipValue();
+            return fallback;
+        }
+        double value = reader.nextDouble();
+        if (!(value >= 1)) {
+            EbzInventory.LOGGER.warn("⚠️ {} {}: craftingTime {} menor que 1 tick; se usa 1",
+                    result.getSource(), location, value);
+            return 1;
+        }
+        return value >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) value;
+    }
+
+    /**
+     * Lee un entero positivo. Acepta números escritos como decimales sin parte fraccionaria
+     * (Gson los entregaba como Double).
+     *
+     * @return El valor, o 0 si no es válido (el error ya queda registrado)
+     */
+    private static long readPositive(JsonReader reader, RecipeLoadResult result) throws IOException {
+        String location = where(reader);
+        if (reader.peek() != JsonToken.NUMBER) {
+            result.error(location + ": se esperaba un número");
+            reader.skipValue();
+            return 0;
+        }
+        double value = reader.nextDouble();
+        if (value <= 0 || value != Math.rint(value) || value > Long.MAX_VALUE) {
+            result.error(location + ": se esperaba un entero positivo y se encontró " + value);
+            return 0;
+        }
+        return (long) value;
+    }
+
+    /**
+     * Lee el NBT plano del resultado. Como antes, se admiten textos, números (como enteros)
+     * y booleanos; los valores anidados se ignoran.
+     */
+    private static CompoundTag readNbt(JsonReader reader, RecipeLoadResult result) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            result.error(where(reader) + ": 'nbt' debe ser un objeto");
+            reader.skipValue();
+            return null;
+        }
+        CompoundTag tag = new CompoundTag();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            switch (reader.peek()) {
+                case STRING -> tag.putString(key, reader.nextString());
+                case NUMBER -> tag.putInt(key, (int) reader.nextDouble());
+                case BOOLEAN -> tag.putBoolean(key, reader.nextBoolean());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return tag.isEmpty() ? null : tag;
+    }
+
+    /**
+     * Posición actual del lector: "line N column M path $...".
+     * {@link JsonReader} no expone línea y columna directamente, pero sí en su descripción.
+     */
+    static String where(JsonReader reader) {
+        String description = reader.toString();
+        int at = description.indexOf(" at line ");
+        return at >= 0 ? description.substring(at + 4) : reader.getPath();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de leer un fichero de recetas: las recetas válidas y los errores encontrados.
+ * No publica nada; quien lo recibe decide si el resultado es aceptable.
+ */
+public final class RecipeLoadResult {
+    private final String source;
+    private final RecipeSnapshot.Builder builder = new RecipeSnapshot.Builder();
+    private final List<String> errors = new ArrayList<>();
+    private final List<RecipeLoadResult> parts = new ArrayList<>();
+    private boolean fatal;
+    private long elapsedNanos;
+
+    public RecipeLoadResult(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Ruta o nombre del origen, para los mensajes de log.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public RecipeSnapshot.Builder getBuilder() {
+        return builder;
+    }
+
+    /**
+     * Registra un error en una entrada concreta; el resto del fichero sigue siendo utilizable.
+     */
+    public void error(String message) {
+        errors.add(message);
+    }
+
+    /**
+     * Registra un error que invalida el fichero completo (ilegible o con formato incorrecto).
+     */
+    public void fatal(String message) {
+        errors.add(message);
+        fatal = true;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Resultados de cada fichero cuando éste es la unión de varios; vacío para un solo fichero.
+     */
+    public List<RecipeLoadResult> getParts() {
+        return Collections.unmodifiableList(parts);
+    }
+
+    void addPart(RecipeLoadResult part) {
+        parts.add(part);
+    }
+
+    /**
+     * Tiempo empleado en leer y resolver este origen.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Indica si el fichero pudo leerse, aunque alguna entrada se haya descartado.
+     */
+    public boolean isReadable() {
+        return !fatal;
+    }
+
+    /**
+     * Indica si el fichero se leyó completo y sin errores.
+     */
+    public boolean isValid() {
+        return !fatal && errors.isEmpty();
+    }
+}
@@ -0,0 +1,168 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de recetas repartidas en varios ficheros (por categoría o por paquete de contenido).
+ *
+ * Cada fichero se lee en paralelo en un pool fork-join propio; después los resultados se
+ * unen en el orden de {@link #listSources}, de modo que el conjunto final no depende de qué
+ * fichero terminó antes. Un {@code recipeId} repetido en dos ficheros es un conflicto: se
+ * conserva la primera definición y se registra un error.
+ */
+public final class RecipePackLoader {
+    private static ForkJoinPool pool;
+
+    private RecipePackLoader() {
+    }
+
+    /**
+     * Ficheros de recetas en orden de carga: primero el fichero único (si existe) y después
+     * los {@code .json} del directorio, ordenados por nombre.
+     *
+     * @param file      Fichero de recetas clásico
+     * @param directory Directorio de paquetes de recetas
+     */
+    public static List<File> listSources(File file, File directory) {
+        List<File> sources = new ArrayList<>();
+        if (file.isFile()) {
+            sources.add(file);
+        }
+        File[] packs = directory.listFiles((dir, name) -> name.endsWith(".json"));
+        if (packs != null) {
+            Arrays.sort(packs, (a, b) -> a.getName().compareTo(b.getName()));
+            for (File pack : packs) {
+                if (pack.isFile()) {
+                    sources.add(pack);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Lee todos los ficheros y une sus recetas en un único resultado.
+     *
+     * El resultado es ilegible solo si ningún fichero pudo leerse; los errores de cada
+     * fichero (incluidos los fatales) se copian con su origen como prefijo.
+     */
+    public static RecipeLoadResult load(List<File> sources) {
+        long start = System.nanoTime();
+        List<RecipeLoadResult> parts = parseAll(sources);
+
+        RecipeLoadResult merged = new RecipeLoadResult("recetas");
+        RecipeSnapshot.Builder builder = merged.getBuilder();
+        Map<String, String> origins = new HashMap<>();
+        boolean anyReadable = false;
+
+        for (RecipeLoadResult part : parts) {
+            merged.addPart(part);
+            for (String error : part.getErrors()) {
+                merged.error(part.getSource() + ": " + error);
+            }
+            if (!part.isReadable()) continue;
+            anyReadable = true;
+
+            for (InventoryRecipe recipe : part.getBuilder().values()) {
+                String previous = origins.putIfAbsent(recipe.getId(), part.getSource());
+                if (previous != null) {
+                    merged.error(part.getSource() + ": recipeId duplicado " + recipe.getId()
+                            + " (ya definido en " + previous + "); se ignora");
+                    continue;
+                }
+                builder.add(recipe);
+            }
+        }
+
+        if (!anyReadable && !sources.isEmpty()) {
+            merged.fatal("ningún fichero de recetas pudo leerse");
+        }
+        merged.setElapsedNanos(System.nanoTime() - start);
+        return merged;
+    }
+
+    /**
+     * Escribe en el log cuántas recetas aportó cada fichero y cuánto tardó.
+     */
+    public static void logReport(RecipeLoadResult merged) {
+        for (RecipeLoadResult part : merged.getParts()) {
+            EbzInventory.LOGGER.info("   -> {}: {} recetas en {} ms{}",
+                    part.getSource(),
+                    part.getBuilder().size(),
+                    TimeUnit.NANOSECONDS.toMillis(part.getElapsedNanos()),
+                    part.getErrors().isEmpty() ? "" : " (" + part.getErrors().size() + " errores)");
+        }
+    }
+
+    private static List<RecipeLoadResult> parseAll(List<File> sources) {
+        List<RecipeLoadResult> results = new ArrayList<>(sources.size());
+        if (sources.size() <= 1) {
+            // Un solo fichero: no compensa pasar por el pool
+            for (File source : sources) {
+                results.add(parseTimed(source));
+            }
+            return results;
+        }
+
+        List<Callable<RecipeLoadResult>> tasks = new ArrayList<>(sources.size());
+        for (File source : sources) {
+            tasks.add(() -> parseTimed(source));
+        }
+
+        // invokeAll devuelve los resultados en el orden de las tareas
+        List<Future<RecipeLoadResult>> futures = pool().invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(failed(sources.get(i), "carga interrumpida"));
+            } catch (ExecutionException e) {
+                results.add(failed(sources.get(i), String.valueOf(e.getCause())));
+            }
+        }
+        return results;
+    }
+
+    private static RecipeLoadResult parseTimed(File source) {
+        long start = System.nanoTime();
+        RecipeLoadResult result = InventoryRecipeManager.parseRecipes(source);
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    private static RecipeLoadResult failed(File source, String message) {
+        RecipeLoadResult result = new RecipeLoadResult(source.getPath());
+        result.fatal(message);
+        return result;
+    }
+
+    private static synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(
+                    Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                    forkJoinPool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName("EbzInventory-RecipeLoader-" + thread.getPoolIndex());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    null,
+                    false);
+        }
+        return pool;
+    }
+}
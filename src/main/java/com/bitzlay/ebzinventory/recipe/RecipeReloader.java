@@ -0,0 +1,215 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import com.bitzlay.ebzinventory.EbzInventory;
+import com.bitzlay.ebzinventory.network.RecipeSync;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recarga en caliente de las recetas.
+ *
+ * Un hilo vigila el fichero de recetas y el directorio de paquetes; cuando cambian (tras
+ * una breve espera para agrupar escrituras), otro hilo los lee y valida contra el registro
+ * de items. Si todo es válido, la nueva instantánea queda pendiente y se publica al final
+ * del siguiente tick del servidor, de modo que ningún tick ve un conjunto a medias, y los
+ * cambios se envían a los clientes. Si no lo es, se registran los errores
+ * y se sigue sirviendo la instantánea actual.
+ */
+@Mod.EventBusSubscriber(modid = EbzInventory.MOD_ID)
+public class RecipeReloader {
+    /** Espera tras el último cambio antes de leer, para no leer ficheros a medio escribir */
+    private static final long DEBOUNCE_MS = 500;
+
+    private static final AtomicReference<RecipeLoadResult> PENDING = new AtomicReference<>();
+
+    private static ExecutorService parser;
+    private static WatchService watchService;
+    private static File watchedFile;
+    private static File watchedDirectory;
+
+    /**
+     * Empieza a vigilar el fichero y el directorio de recetas. Llamadas repetidas no tienen efecto.
+     *
+     * @param filename  Ruta del fichero de recetas
+     * @param directory Ruta del directorio de paquetes de recetas
+     */
+    public static synchronized void start(String filename, String directory) {
+        if (watchService != null) return;
+
+        watchedFile = new File(filename).getAbsoluteFile();
+        watchedDirectory = new File(directory).getAbsoluteFile();
+        try {
+            // Se crea el directorio para poder vigilarlo aunque todavía no haya paquetes
+            Files.createDirectories(watchedDirectory.toPath());
+            watchService = FileSystems.getDefault().newWatchService();
+            register(watchedFile.getParentFile().toPath());
+            register(watchedDirectory.toPath());
+        } catch (IOException e) {
+            EbzInventory.LOGGER.error("❌ No se pudo vigilar {}; la recarga en caliente queda desactivada", watchedDirectory, e);
+            closeWatchService();
+            return;
+        }
+
+        parser = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EbzInventory-RecipeParser");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Thread watcher = new Thread(RecipeReloader::watchLoop, "EbzInventory-RecipeWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        EbzInventory.LOGGER.info("✅ Recarga en caliente de recetas activa: {} y {}", watchedFile, watchedDirectory);
+    }
+
+    private static void register(Path directory) throws IOException {
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Detiene la vigilancia. Las recargas ya en curso se descartan.
+     */
+    public static synchronized void stop() {
+        if (watchService == null) return;
+        closeWatchService();
+        parser.shutdownNow();
+        parser = null;
+        PENDING.set(null);
+    }
+
+    private static void closeWatchService() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        watchService = null;
+    }
+
+    /**
+     * Solicita leer de nuevo las recetas en segundo plano, aunque no hayan cambiado.
+     */
+    public static synchronized void requestReload() {
+        if (parser == null) return;
+        File file = watchedFile;
+        File directory = watchedDirectory;
+        parser.execute(() -> parse(file, directory));
+    }
+
+    private static void watchLoop() {
+        WatchService service = watchService;
+        Path fileName = watchedFile.toPath().getFileName();
+        Path packDirectory = watchedDirectory.toPath();
+        long changedAt = 0;
+        try {
+            while (true) {
+                WatchKey key = service.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    boolean inPackDirectory = packDirectory.equals(key.watchable());
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        Object context = event.context();
+                        boolean relevant = inPackDirectory
+                                ? context instanceof Path path && path.toString().endsWith(".json")
+                                : fileName.equals(context);
+                        if (relevant || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            changedAt = System.currentTimeMillis();
+                        }
+                    }
+                    if (!key.reset()) {
+                        EbzInventory.LOGGER.warn("⚠️ {} dejó de ser accesible; no se vigilarán más cambios en él", key.watchable());
+                    }
+                }
+                if (changedAt != 0 && System.currentTimeMillis() - changedAt >= DEBOUNCE_MS) {
+                    changedAt = 0;
+                    requestReload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Vigilancia detenida
+        }
+    }
+
+    private static void parse(File file, File directory) {
+        List<File> sources = RecipePackLoader.listSources(file, directory);
+        if (sources.isEmpty()) {
+            EbzInventory.LOGGER.warn("⚠️ No hay ficheros de recetas; se mantienen las recetas actuales");
+            return;
+        }
+
+        // La clave se calcula antes de leer: si un fichero cambia entretanto, la caché no coincidirá
+        byte[] key = InventoryRecipeManager.cacheKey(sources);
+
+        RecipeLoadResult result = RecipePackLoader.load(sources);
+
+        if (!result.isValid()) {
+            EbzInventory.LOGGER.error("❌ Recarga de recetas rechazada ({} errores); se mantiene la versión {}",
+                    result.getErrors().size(), InventoryRecipeManager.getSnapshot().getVersion());
+            InventoryRecipeManager.logErrors(result);
+            return;
+        }
+
+        EbzInventory.LOGGER.debug("Recetas leídas de {} ficheros en {} ms; pendientes de publicar",
+                sources.size(), TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()));
+
+        // La caché se actualiza aquí, fuera del hilo principal, para que el próximo arranque la use
+        if (key != null) {
+            RecipeCache.write(RecipeCache.CACHE_FILE, key, result.getBuilder().values());
+        }
+
+        // Si había otra recarga pendiente, ésta es más reciente y la sustituye
+        PENDING.set(result);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            applyPending();
+        }
+    }
+
+    /**
+     * Publica la recarga pendiente, si la hay. Se llama en el límite entre ticks.
+     */
+    private static void applyPending() {
+        RecipeLoadResult result = PENDING.getAndSet(null);
+        if (result == null) return;
+
+        RecipeSnapshot previous = InventoryRecipeManager.getSnapshot();
+        RecipeSnapshot next = InventoryRecipeManager.publish(result.getBuilder());
+        RecipeDiff diff = RecipeDiff.between(previous, next);
+
+        EbzInventory.LOGGER.info("✅ Recetas recargadas (versión {}): {}", next.getVersion(), diff);
+        RecipePackLoader.logReport(result);
+
+        RecipeSync.broadcastChanges(previous, next, diff);
+        if (!diff.getAdded().isEmpty()) {
+            EbzInventory.LOGGER.info("   -> Añadidas: {}", diff.getAdded());
+        }
+        if (!diff.getRemoved().isEmpty()) {
+            EbzInventory.LOGGER.info("   -> Eliminadas: {}", diff.getRemoved());
+        }
+        if (!diff.getChanged().isEmpty()) {
+            EbzInventory.LOGGER.info("   -> Modificadas: {}", diff.getChanged());
+        }
+    }
+}
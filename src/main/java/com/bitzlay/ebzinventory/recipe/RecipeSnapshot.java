@@ -0,0 +1,257 @@
+package com.bitzlay.ebzinventory.recipe;
+
+import net.minecraft.world.item.Item;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instantánea inmutable y versionada del conjunto de recetas.
+ * Todos los índices se calculan una sola vez al construirla, de modo que las consultas
+ * desde la interfaz no recorren ni copian el conjunto completo.
+ */
+public final class RecipeSnapshot {
+    /** Instantánea vacía usada antes de la primera carga */
+    public static final RecipeSnapshot EMPTY = new Builder().build(0);
+
+    private final long version;
+    private final List<InventoryRecipe> recipes;
+    private final Map<String, InventoryRecipe> byId;
+    private final CategoryIndex<InventoryRecipe> byCategory;
+    private final Map<Item, List<InventoryRecipe>> byResult;
+    private final Map<Item, List<InventoryRecipe>> byIngredient;
+    private final Map<InventoryRecipe, Integer> ordinals;
+
+    // Hash de contenido, calculado la primera vez que se pide
+    private volatile long contentHash;
+    private volatile boolean hashed;
+
+    // Grafo de subcomponentes, construido la primera vez que se pide
+    private volatile RecipeGraph graph;
+
+    private RecipeSnapshot(long version, LinkedHashMap<String, InventoryRecipe> source) {
+        this.version = version;
+        this.recipes = Collections.unmodifiableList(new ArrayList<>(source.values()));
+        this.byId = Collections.unmodifiableMap(new LinkedHashMap<>(source));
+
+        // Los índices conservan el orden de carga de las recetas
+        Map<Item, List<InventoryRecipe>> results = new HashMap<>();
+        Map<Item, List<InventoryRecipe>> ingredients = new HashMap<>();
+        Map<InventoryRecipe, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            InventoryRecipe recipe = recipes.get(i);
+            positions.put(recipe, i);
+            results.computeIfAbsent(recipe.getResult().getItem(), k -> new ArrayList<>()).add(recipe);
+            for (Item ingredient : recipe.getIngredients().keySet()) {
+                ingredients.computeIfAbsent(ingredient, k -> new ArrayList<>()).add(recipe);
+            }
+        }
+        this.byCategory = CategoryIndex.build(recipes, InventoryRecipe::getCategory);
+        this.byResult = freeze(results);
+        this.byIngredient = freeze(ingredients);
+        this.ordinals = Collections.unmodifiableMap(positions);
+    }
+
+    private static <K> Map<K, List<InventoryRecipe>> freeze(Map<K, List<InventoryRecipe>> index) {
+        index.replaceAll((key, list) -> Collections.unmodifiableList(list));
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Versión de la instantánea. Aumenta cada vez que se publica un nuevo conjunto.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Todas las recetas en orden de carga.
+     */
+    public List<InventoryRecipe> getRecipes() {
+        return recipes;
+    }
+
+    public InventoryRecipe getRecipe(String id) {
+        return byId.get(id);
+    }
+
+    public Map<String, InventoryRecipe> asMap() {
+        return byId;
+    }
+
+    /**
+     * Recetas de una categoría, precalculadas.
+     *
+     * @param category ID de la categoría
+     * @return Lista inmutable (vacía si no hay recetas)
+     */
+    public List<InventoryRecipe> getRecipesByCategory(String category) {
+        return byCategory.get(category);
+    }
+
+    /**
+     * Recetas cuyo resultado es el item indicado.
+     *
+     * @param item Item resultante
+     * @return Lista inmutable (vacía si no hay recetas)
+     */
+    public List<InventoryRecipe> getRecipesByResult(Item item) {
+        return byResult.getOrDefault(item, Collections.emptyList());
+    }
+
+    /**
+     * Recetas que consumen el item indicado (índice inverso de ingredientes).
+     *
+     * @param item Ingrediente
+     * @return Lista inmutable en orden de carga (vacía si ninguna receta lo usa)
+     */
+    public List<InventoryRecipe> getRecipesUsing(Item item) {
+        return byIngredient.getOrDefault(item, Collections.emptyList());
+    }
+
+    /**
+     * Indica si algún resultado de receta es el item indicado.
+     */
+    public boolean hasRecipeFor(Item item) {
+        return byResult.containsKey(item);
+    }
+
+    /**
+     * Indica si alguna receta usa el item indicado como ingrediente.
+     */
+    public boolean isIngredient(Item item) {
+        return byIngredient.containsKey(item);
+    }
+
+    /**
+     * Posición de la receta en {@link #getRecipes()}, o -1 si no pertenece a esta instantánea.
+     * Se compara por identidad: una receta de otra instantánea no se considera incluida.
+     */
+    public int indexOf(InventoryRecipe recipe) {
+        Integer ordinal = ordinals.get(recipe);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public int size() {
+        return recipes.size();
+    }
+
+    /**
+     * Hash del contenido de la instantánea, independiente de su versión, del orden de las
+     * recetas y de los IDs numéricos del registro. Dos instantáneas con las mismas recetas
+     * tienen el mismo hash aunque se hayan cargado en procesos distintos, de modo que un
+     * conjunto reconstruido a partir de cambios puede compararse con el original.
+     */
+    public long getContentHash() {
+        if (!hashed) {
+            contentHash = computeContentHash();
+            hashed = true;
+        }
+        return contentHash;
+    }
+
+    /**
+     * Grafo de subcomponentes de este conjunto. Se construye una sola vez por instantánea,
+     * así que planificar no recorre las recetas en cada petición.
+     */
+    public RecipeGraph getGraph() {
+        RecipeGraph current = graph;
+        if (current == null) {
+            // Dos hilos pueden construirlo a la vez; el resultado es el mismo
+            current = RecipeGraph.build(recipes);
+            graph = current;
+        }
+        return current;
+    }
+
+    private long computeContentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Suma de hashes por receta: conmutativa, así el orden no influye
+        long hash = recipes.size();
+        StringBuilder entry = new StringBuilder(128);
+        for (InventoryRecipe recipe : recipes) {
+            entry.setLength(0);
+            entry.append(recipe.getId()).append('\0')
+                    .append(recipe.getCategory()).append('\0')
+                    .append(recipe.getDisplayName()).append('\0')
+                    .append(ForgeRegistries.ITEMS.getKey(recipe.getResult().getItem())).append('\0')
+                    .append(recipe.getResult().getCount()).append('\0')
+                    .append(recipe.getResult().getTag()).append('\0')
+                    .append(recipe.getCraftingTime());
+            for (int i = 0; i < recipe.getIngredientCount(); i++) {
+                entry.append('\0').append(ForgeRegistries.ITEMS.getKey(recipe.getIngredientItem(i)))
+                        .append('=').append(recipe.getIngredientAmount(i));
+            }
+            hash += ByteBuffer.wrap(digest.digest(entry.toString().getBytes(StandardCharsets.UTF_8))).getLong();
+        }
+        return hash;
+    }
+
+    /**
+     * Crea un constructor con el contenido de esta instantánea, para derivar una nueva.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.recipes.putAll(byId);
+        return builder;
+    }
+
+    /**
+     * Constructor mutable usado durante la carga. Nunca se comparte con los lectores.
+     */
+    public static final class Builder {
+        private final LinkedHashMap<String, InventoryRecipe> recipes = new LinkedHashMap<>();
+
+        /**
+         * Añade o reemplaza una receta. Un reemplazo conserva la posición original.
+         */
+        public Builder add(InventoryRecipe recipe) {
+            recipes.put(recipe.getId(), recipe);
+            return this;
+        }
+
+        /**
+         * Elimina una receta si existe.
+         */
+        public Builder remove(String id) {
+            recipes.remove(id);
+            return this;
+        }
+
+        public boolean contains(String id) {
+            return recipes.containsKey(id);
+        }
+
+        public int size() {
+            return recipes.size();
+        }
+
+        /**
+         * Recetas añadidas hasta ahora, en orden.
+         */
+        public Collection<InventoryRecipe> values() {
+            return Collections.unmodifiableCollection(recipes.values());
+        }
+
+        public RecipeSnapshot build(long version) {
+            return new RecipeSnapshot(version, recipes);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bitzlay.ebzinventory.crafting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vencimiento exacto de {@link TimingWheel}, sobre todo de los temporizadores que bajan de
+ * nivel al redistribuir.
+ */
+class TimingWheelTest {
+
+    /**
+     * Avanza tick a tick y devuelve el tick en que venció cada valor, en orden de entrega.
+     */
+    private static List<long[]> run(TimingWheel<Long> wheel, long from, long to) {
+        List<long[]> fired = new ArrayList<>();
+        for (long tick = from + 1; tick <= to; tick++) {
+            long now = tick;
+            wheel.advanceTo(tick, value -> fired.add(new long[]{value, now}));
+        }
+        return fired;
+    }
+
+    private static void assertFiresAt(long deadline) {
+        TimingWheel<Long> wheel = new TimingWheel<>();
+        wheel.schedule(deadline, deadline);
+
+        List<long[]> fired = run(wheel, 0, deadline + 2);
+
+        assertEquals(1, fired.size());
+        assertEquals(deadline, fired.get(0)[1], "venció en otro tick");
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void firesWithinFirstLevel() {
+        assertFiresAt(1);
+        assertFiresAt(63);
+    }
+
+    @Test
+    void firesExactlyOnLevelOneSpan() {
+        // 64 ticks se guarda en el nivel 1 y baja al nivel 0 justo en el tick en que vence
+        assertFiresAt(64);
+        assertFiresAt(128);
+    }
+
+    @Test
+    void firesExactlyOnLevelTwoSpan() {
+        assertFiresAt(64 * 64);
+        assertFiresAt(3 * 64 * 64);
+    }
+
+    @Test
+    void firesAroundLevelBoundaries() {
+        assertFiresAt(65);
+        assertFiresAt(64 * 64 - 1);
+        assertFiresAt(64 * 64 + 1);
+    }
+
+    @Test
+    void firesExactlyWhenScheduledMidway() {
+        TimingWheel<Long> wheel = new TimingWheel<>();
+        run(wheel, 0, 10);
+        wheel.schedule(10L + 64, 10L + 64);
+        wheel.schedule(128L, 128L);
+
+        List<long[]> fired = run(wheel, 10, 130);
+
+        assertEquals(2, fired.size());
+        for (long[] entry : fired) {
+            assertEquals(entry[0], entry[1], "venció en otro tick");
+        }
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>();
+        wheel.schedule(0L, 1L);
+        run(wheel, 0, 5);
+        wheel.schedule(2L, 2L);
+
+        List<long[]> fired = run(wheel, 5, 8);
+
+        assertEquals(1, fired.size());
+        assertEquals(6, fired.get(0)[1]);
+    }
+
+    @Test
+    void rescheduleOntoLevelOneSpanFiresExactly() {
+        TimingWheel<Long> wheel = new TimingWheel<>();
+        TimingWheel.Timer<Long> timer = wheel.schedule(192L, 5);
+        wheel.reschedule(timer, 192);
+
+        List<long[]> fired = run(wheel, 0, 200);
+
+        assertEquals(1, fired.size());
+        assertEquals(192, fired.get(0)[1]);
+    }
+}